@@ -50,6 +50,7 @@
 import org.spongepowered.common.command.CommandSponge;
 import org.spongepowered.common.command.SpongeCommandDisambiguator;
 import org.spongepowered.common.command.SpongeHelpCommand;
+import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.registry.SpongeGameRegistry;
 import org.spongepowered.common.service.config.SpongeConfigService;
 import org.spongepowered.common.service.pagination.SpongePaginationService;
@@ -76,6 +77,9 @@ public final class SpongeBootstrap {
     private static final org.slf4j.Logger slf4jLogger = new SLF4JLogger((AbstractLogger) Sponge.getLogger(), Sponge.getLogger().getName());
 
     public static void initializeServices() {
+        SpongeEventManager.setTimingsEnabled(Sponge.getGlobalConfig().getConfig().getDebug().isEnableEventTimings());
+        SpongeScheduler.getInstance().getSyncScheduler().setTickBudget(Sponge.getGlobalConfig().getConfig().getScheduler().getSyncTickBudget());
+
         SimpleCommandService commandService = new SimpleCommandService(Sponge.getGame(), slf4jLogger,
                 new SpongeCommandDisambiguator(Sponge.getGame()));
         if (registerService(CommandService.class, commandService)) {
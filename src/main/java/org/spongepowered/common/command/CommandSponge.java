@@ -27,6 +27,7 @@
 import static org.spongepowered.api.util.command.args.GenericArguments.dimension;
 import static org.spongepowered.api.util.command.args.GenericArguments.firstParsing;
 import static org.spongepowered.api.util.command.args.GenericArguments.flags;
+import static org.spongepowered.api.util.command.args.GenericArguments.integer;
 import static org.spongepowered.api.util.command.args.GenericArguments.literal;
 import static org.spongepowered.api.util.command.args.GenericArguments.optional;
 import static org.spongepowered.api.util.command.args.GenericArguments.seq;
@@ -61,16 +62,26 @@
 import org.spongepowered.asm.mixin.MixinEnvironment;
 import org.spongepowered.common.Sponge;
 import org.spongepowered.common.configuration.SpongeConfig;
+import org.spongepowered.common.event.ListenerTimings;
+import org.spongepowered.common.event.RegisteredListener;
+import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.interfaces.IMixinWorld;
 import org.spongepowered.common.interfaces.IMixinWorldProvider;
+import org.spongepowered.common.service.scheduler.AsyncScheduler;
+import org.spongepowered.common.service.scheduler.ScheduledTask;
+import org.spongepowered.common.service.scheduler.SpongeScheduler;
+import org.spongepowered.common.service.scheduler.SyncScheduler;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.world.DimensionManager;
 import org.spongepowered.common.world.SpongeDimensionType;
+import org.spongepowered.common.world.WorldPregenerator;
 
 import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Nullable;
 
@@ -94,6 +105,9 @@ public static CommandSpec getCommand() {
         nonFlagChildren.register(getAuditCommand(), "audit");
         nonFlagChildren.register(getHeapCommand(), "heap");
         nonFlagChildren.register(getPluginsCommand(), "plugins");
+        nonFlagChildren.register(getTimingsCommand(), "timings");
+        nonFlagChildren.register(getSchedulerCommand(), "scheduler");
+        nonFlagChildren.register(getPregenCommand(), "pregen");
         flagChildren.register(getChunksCommand(), "chunks");
         flagChildren.register(getConfigCommand(), "config");
         flagChildren.register(getReloadCommand(), "reload"); // TODO: Should these two be subcommands of config, and what is now config be set?
@@ -108,7 +122,10 @@ INDENT, title("reload"), LONG_INDENT, "Reloads a global, dimension, or world con
                         INDENT, title("save"), LONG_INDENT, "Saves a global, dimension, or world config\n",
                         INDENT, title("version"), LONG_INDENT, "Prints current Sponge version\n",
                         INDENT, title("audit"), LONG_INDENT, "Audit mixin classes for implementation",
-                        INDENT, title("plugins"), LONG_INDENT, "List currently installed plugins"))
+                        INDENT, title("plugins"), LONG_INDENT, "List currently installed plugins\n",
+                        INDENT, title("timings"), LONG_INDENT, "Show, reset or dump event listener timings\n",
+                        INDENT, title("scheduler"), LONG_INDENT, "Show scheduler metrics\n",
+                        INDENT, title("pregen"), LONG_INDENT, "Pregenerate, resume or cancel the chunks around the spawn of a world"))
                 .arguments(firstParsing(nonFlagChildren, flags()
                         .flag("-global", "g")
                         .valueFlag(world(Texts.of("world"), Sponge.getGame()), "-world", "w")
@@ -423,4 +440,166 @@ INDENT, title("Main class: "), container.getInstance() == null ? " Virtual mod "
                     }
                 }).build();
     }
+
+    private static CommandSpec getTimingsCommand() {
+        return CommandSpec.builder()
+                .description(Texts.of("Show, reset or dump event listener timings"))
+                .permission("sponge.command.timings")
+                .arguments(optional(firstParsing(literal(Texts.of("on"), "on"), literal(Texts.of("off"), "off"),
+                        literal(Texts.of("reset"), "reset"), literal(Texts.of("dump"), "dump"))))
+                .executor(new CommandExecutor() {
+                    @Override
+                    public CommandResult execute(CommandSource src, CommandContext args) throws CommandException {
+                        if (args.hasAny("on") || args.hasAny("off")) {
+                            boolean enabled = args.hasAny("on");
+                            SpongeEventManager.setTimingsEnabled(enabled);
+                            Sponge.getGlobalConfig().getConfig().getDebug().setEnableEventTimings(enabled);
+                            Sponge.getGlobalConfig().save();
+                            src.sendMessage(Texts.of("Event timings ", title(enabled ? "enabled" : "disabled")));
+                        } else if (args.hasAny("reset")) {
+                            TimingsSaveHelper.resetTimings();
+                            src.sendMessage(Texts.of("Event timings reset"));
+                        } else if (args.hasAny("dump")) {
+                            File file = new File(new File(new File("."), "timings"),
+                                    "event-timings-" + new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss").format(new Date()) + "-server.json");
+                            src.sendMessage(Texts.of("Writing event timings to: ", file));
+                            TimingsSaveHelper.writeTimings(file);
+                            src.sendMessage(Texts.of("Event timings complete"));
+                        } else {
+                            src.sendMessage(getTimingsInfo());
+                        }
+                        return CommandResult.success();
+                    }
+
+                    private Text getTimingsInfo() {
+                        if (!SpongeEventManager.areTimingsEnabled()) {
+                            return Texts.of("Event timings are disabled, enable them with ", title("/sponge timings on"));
+                        }
+
+                        List<RegisteredListener<?>> listeners = TimingsSaveHelper.getListenersByTotalTime();
+                        TextBuilder build = Texts.builder().append(title("Plugins:"));
+                        for (Map.Entry<PluginContainer, long[]> entry : TimingsSaveHelper.getPluginTimings(listeners).entrySet()) {
+                            build.append(NEWLINE_TEXT, Texts.of(INDENT, entry.getKey().getId(), ": ",
+                                    formatTimings(entry.getValue()[0], entry.getValue()[1], entry.getValue()[2])));
+                        }
+                        build.append(NEWLINE_TEXT, title("Slowest listeners:"));
+                        for (int i = 0; i < listeners.size() && i < 10; i++) {
+                            RegisteredListener<?> listener = listeners.get(i);
+                            ListenerTimings timings = listener.getTimings();
+                            build.append(NEWLINE_TEXT, Texts.of(INDENT, listener.getPlugin().getId(), " ", TimingsSaveHelper.describe(listener),
+                                    ": ", formatTimings(timings.getCount(), timings.getTotalNanos(), timings.getMaxNanos())));
+                        }
+                        return build.build();
+                    }
+
+                    private String formatTimings(long count, long totalNanos, long maxNanos) {
+                        return String.format("%d calls, %.2fms total, %.3fms avg, %.3fms max", count, totalNanos / 1.0E6,
+                                count == 0 ? 0 : totalNanos / 1.0E6 / count, maxNanos / 1.0E6);
+                    }
+                })
+                .build();
+    }
+
+    private static CommandSpec getSchedulerCommand() {
+        return CommandSpec.builder()
+                .description(Texts.of("Show scheduler metrics"))
+                .permission("sponge.command.scheduler")
+                .executor(new CommandExecutor() {
+                    @Override
+                    public CommandResult execute(CommandSource src, CommandContext args) throws CommandException {
+                        AsyncScheduler scheduler = SpongeScheduler.getInstance().getAsyncScheduler();
+                        TextBuilder build = Texts.builder().append(title("Async scheduler:"), NEWLINE_TEXT,
+                                Texts.of(INDENT, "Threads: ", scheduler.getActiveThreads(), " active, ", scheduler.getPoolSize(), " total"),
+                                NEWLINE_TEXT, Texts.of(INDENT, "Queue depth: ", scheduler.getQueueDepth()),
+                                NEWLINE_TEXT, Texts.of(INDENT, "Tasks: ", scheduler.getStartedTasks(), " started, ", scheduler.getRejectedTasks(),
+                                        " rejected, ", scheduler.getDeferredTasks(), " deferred"),
+                                NEWLINE_TEXT, Texts.of(INDENT, "Latency from due to start: ", scheduler.getAverageLatency(), "ms avg, ",
+                                        scheduler.getMaxLatency(), "ms max"));
+                        Map<String, Integer> running = scheduler.getRunningTasksByPlugin();
+                        if (!running.isEmpty()) {
+                            build.append(NEWLINE_TEXT, title("Running tasks by plugin:"));
+                            for (Map.Entry<String, Integer> entry : running.entrySet()) {
+                                build.append(NEWLINE_TEXT, Texts.of(INDENT, entry.getKey(), ": ", entry.getValue()));
+                            }
+                        }
+                        SyncScheduler syncScheduler = SpongeScheduler.getInstance().getSyncScheduler();
+                        long budget = Sponge.getGlobalConfig().getConfig().getScheduler().getSyncTickBudget();
+                        build.append(NEWLINE_TEXT, title("Sync scheduler:"), NEWLINE_TEXT,
+                                Texts.of(INDENT, "Tick budget: ", budget > 0 ? budget + "ms" : "unlimited"),
+                                NEWLINE_TEXT, Texts.of(INDENT, "Deferred: ", syncScheduler.getDeferredTasks()));
+                        List<ScheduledTask> tasks = syncScheduler.getTasksByExecutionTime();
+                        if (!tasks.isEmpty()) {
+                            build.append(NEWLINE_TEXT, title("Slowest sync tasks:"));
+                            for (ScheduledTask task : tasks.subList(0, Math.min(10, tasks.size()))) {
+                                build.append(NEWLINE_TEXT, Texts.of(INDENT, task.getOwner().getId(), " ", task.getName(), ": ",
+                                        task.getTotalExecutionNanos() / 1000000, "ms total, ",
+                                        task.getMaxExecutionNanos() / 1000000, "ms max, ", task.getExecutionCount(), " runs"));
+                            }
+                        }
+                        src.sendMessage(build.build());
+                        return CommandResult.success();
+                    }
+                })
+                .build();
+    }
+
+    private static CommandSpec getPregenCommand() {
+        return CommandSpec.builder()
+                .description(Texts.of("Pregenerate the chunks around the spawn of a world"))
+                .permission("sponge.command.pregen")
+                .arguments(world(Texts.of("world"), Sponge.getGame()), optional(firstParsing(literal(Texts.of("cancel"), "cancel"),
+                        literal(Texts.of("resume"), "resume"), seq(integer(Texts.of("radius")), optional(integer(Texts.of("tick-budget")))))))
+                .executor(new CommandExecutor() {
+                    @Override
+                    public CommandResult execute(CommandSource src, CommandContext args) throws CommandException {
+                        WorldProperties properties = args.<WorldProperties>getOne("world").get();
+                        Optional<World> optWorld = Sponge.getGame().getServer().getWorld(properties.getUniqueId());
+                        if (!optWorld.isPresent()) {
+                            throw new CommandException(Texts.of("World ", properties.getWorldName(), " is not loaded, cannot work with it"));
+                        }
+                        World world = optWorld.get();
+                        Optional<WorldPregenerator> running = WorldPregenerator.getRunning(world);
+                        if (args.hasAny("cancel")) {
+                            if (running.isPresent()) {
+                                running.get().cancel();
+                            } else if (!WorldPregenerator.clearSaved(world)) {
+                                throw new CommandException(Texts.of("World ", world.getName(), " is not being pregenerated"));
+                            }
+                            src.sendMessage(Texts.of("Cancelled pregenerating ", title(world.getName())));
+                        } else if (args.hasAny("resume") || args.hasAny("radius")) {
+                            if (running.isPresent()) {
+                                throw new CommandException(Texts.of("World ", world.getName(), " is already being pregenerated"));
+                            }
+                            WorldPregenerator pregenerator;
+                            if (args.hasAny("resume")) {
+                                Optional<WorldPregenerator> saved = WorldPregenerator.getSaved(world);
+                                if (!saved.isPresent()) {
+                                    throw new CommandException(Texts.of("World ", world.getName(), " has no pregeneration to resume"));
+                                }
+                                pregenerator = saved.get();
+                            } else {
+                                int radius = args.<Integer>getOne("radius").get();
+                                int tickBudget = args.<Integer>getOne("tick-budget").or(WorldPregenerator.DEFAULT_TICK_BUDGET);
+                                if (radius < 0 || tickBudget <= 0) {
+                                    throw new CommandException(Texts.of("The radius must not be negative and the tick budget must be positive"));
+                                }
+                                pregenerator = new WorldPregenerator(world, radius, tickBudget);
+                            }
+                            pregenerator.start(src);
+                            src.sendMessage(Texts.of("Pregenerating ", title(world.getName()), ": ", pregenerator.getStatus()));
+                        } else if (running.isPresent()) {
+                            src.sendMessage(Texts.of("Pregenerating ", title(world.getName()), ": ", running.get().getStatus()));
+                        } else if (WorldPregenerator.getSaved(world).isPresent()) {
+                            src.sendMessage(Texts.of("Pregenerating ", title(world.getName()), " is paused at ",
+                                    WorldPregenerator.getSaved(world).get().getStatus(), ", continue with ",
+                                    title("/sponge pregen " + world.getName() + " resume")));
+                        } else {
+                            src.sendMessage(Texts.of("World ", title(world.getName()), " is not being pregenerated"));
+                        }
+                        return CommandResult.success();
+                    }
+                })
+                .build();
+    }
+
 }
@@ -0,0 +1,160 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.command;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.stream.JsonWriter;
+import net.minecraft.server.MinecraftServer;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.Sponge;
+import org.spongepowered.common.event.ListenerTimings;
+import org.spongepowered.common.event.RegisteredListener;
+import org.spongepowered.common.event.SpongeEventManager;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+public class TimingsSaveHelper {
+
+    private static final Comparator<RegisteredListener<?>> BY_TOTAL_TIME = new Comparator<RegisteredListener<?>>() {
+
+        @Override
+        public int compare(RegisteredListener<?> l1, RegisteredListener<?> l2) {
+            long t1 = l1.getTimings().getTotalNanos();
+            long t2 = l2.getTimings().getTotalNanos();
+            return t1 < t2 ? 1 : t1 > t2 ? -1 : 0;
+        }
+    };
+
+    /**
+     * Gets all registered listeners that were invoked at least once, sorted
+     * by the total time spent in them, longest first.
+     *
+     * @return The sorted listeners
+     */
+    public static List<RegisteredListener<?>> getListenersByTotalTime() {
+        List<RegisteredListener<?>> listeners = Lists.newArrayList();
+        for (RegisteredListener<?> listener : getEventManager().getRegisteredListeners()) {
+            if (listener.getTimings().getCount() > 0) {
+                listeners.add(listener);
+            }
+        }
+        Collections.sort(listeners, BY_TOTAL_TIME);
+        return listeners;
+    }
+
+    /**
+     * Sums up the timings of the given listeners per plugin.
+     *
+     * @param listeners The listeners
+     * @return The invocation count, total and max nanoseconds per plugin
+     */
+    public static Map<PluginContainer, long[]> getPluginTimings(List<RegisteredListener<?>> listeners) {
+        Map<PluginContainer, long[]> plugins = Maps.newLinkedHashMap();
+        for (RegisteredListener<?> listener : listeners) {
+            long[] timings = plugins.get(listener.getPlugin());
+            if (timings == null) {
+                timings = new long[3];
+                plugins.put(listener.getPlugin(), timings);
+            }
+            ListenerTimings listenerTimings = listener.getTimings();
+            timings[0] += listenerTimings.getCount();
+            timings[1] += listenerTimings.getTotalNanos();
+            timings[2] = Math.max(timings[2], listenerTimings.getMaxNanos());
+        }
+        return plugins;
+    }
+
+    public static void resetTimings() {
+        for (RegisteredListener<?> listener : getEventManager().getRegisteredListeners()) {
+            listener.getTimings().reset();
+        }
+    }
+
+    public static String describe(RegisteredListener<?> listener) {
+        return listener.getHandle().getClass().getName() + " (" + listener.getEventClass().getSimpleName() + ", " + listener.getOrder() + ")";
+    }
+
+    public static void writeTimings(File file) {
+        try {
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+
+            FileWriter fileWriter = new FileWriter(file);
+            JsonWriter writer = new JsonWriter(fileWriter);
+            writer.setIndent("  ");
+            writer.beginObject();
+
+            List<RegisteredListener<?>> listeners = getListenersByTotalTime();
+
+            writer.name("plugins").beginArray();
+            for (Map.Entry<PluginContainer, long[]> entry : getPluginTimings(listeners).entrySet()) {
+                writer.beginObject();
+                writer.name("plugin").value(entry.getKey().getId());
+                writeTimings(writer, entry.getValue()[0], entry.getValue()[1], entry.getValue()[2]);
+                writer.endObject();
+            }
+            writer.endArray(); // Plugins
+
+            writer.name("listeners").beginArray();
+            for (RegisteredListener<?> listener : listeners) {
+                ListenerTimings timings = listener.getTimings();
+                writer.beginObject();
+                writer.name("plugin").value(listener.getPlugin().getId());
+                writer.name("listener").value(listener.getHandle().getClass().getName());
+                writer.name("event").value(listener.getEventClass().getName());
+                writer.name("order").value(listener.getOrder().name());
+                writeTimings(writer, timings.getCount(), timings.getTotalNanos(), timings.getMaxNanos());
+                writer.endObject();
+            }
+            writer.endArray(); // Listeners
+
+            writer.endObject();
+            writer.close();
+            fileWriter.close();
+        } catch (Throwable throwable) {
+            MinecraftServer.getServer().logSevere("Could not save event timings report to " + file);
+        }
+    }
+
+    private static void writeTimings(JsonWriter writer, long count, long totalNanos, long maxNanos) throws IOException {
+        writer.name("count").value(count);
+        writer.name("totalNanos").value(totalNanos);
+        writer.name("averageNanos").value(count == 0 ? 0 : totalNanos / count);
+        writer.name("maxNanos").value(maxNanos);
+    }
+
+    private static SpongeEventManager getEventManager() {
+        return (SpongeEventManager) Sponge.getGame().getEventManager();
+    }
+
+}
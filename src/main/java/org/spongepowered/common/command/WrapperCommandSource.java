@@ -41,6 +41,7 @@
 import org.spongepowered.common.Sponge;
 import org.spongepowered.common.interfaces.IMixinCommandSender;
 import org.spongepowered.common.service.permission.SpongePermissionService;
+import org.spongepowered.common.service.permission.base.GlobalMemorySubjectData;
 import org.spongepowered.common.service.permission.base.SpongeSubject;
 import org.spongepowered.common.text.SpongeTexts;
 import org.spongepowered.common.util.VecHelper;
@@ -52,7 +53,18 @@ public class WrapperCommandSource extends SpongeSubject implements CommandSource
 
     private WrapperCommandSource(ICommandSender sender) {
         this.sender = sender;
-        this.data = new MemorySubjectData(Sponge.getGame().getServiceManager().provide(PermissionService.class).get());
+        // Nothing resolves through the data of a wrapper, so a change only
+        // affects the values cached by this subject
+        this.data = new GlobalMemorySubjectData(Sponge.getGame().getServiceManager().provide(PermissionService.class).get()) {
+
+            @Override
+            protected boolean invalidate(boolean changed) {
+                if (changed) {
+                    invalidateResolvedPermissions();
+                }
+                return changed;
+            }
+        };
 
         // ICommandSenders have a *very* basic understanding of permissions, so
         // get what we can.
@@ -74,6 +74,7 @@ public enum Type {
     public static final String DEBUG_DUMP_CHUNKS_ON_DEADLOCK = "dump-chunks-on-deadlock";
     public static final String DEBUG_DUMP_HEAP_ON_DEADLOCK = "dump-heap-on-deadlock";
     public static final String DEBUG_DUMP_THREADS_ON_WARN = "dump-threads-on-warn";
+    public static final String DEBUG_EVENT_TIMINGS = "event-timings";
 
     // ENTITY
     public static final String ENTITY_MAX_BOUNDING_BOX_SIZE = "max-bounding-box-size";
@@ -94,6 +95,7 @@ public enum Type {
     // GENERAL
     public static final String GENERAL_DISABLE_WARNINGS = "disable-warnings";
     public static final String GENERAL_CHUNK_LOAD_OVERRIDE = "chunk-load-override";
+    public static final String GENERAL_PREFETCH_SPAWN_CHUNKS = "prefetch-spawn-chunks";
 
     // LOGGING
     public static final String LOGGING_CHUNK_LOAD = "chunk-load";
@@ -109,9 +111,19 @@ public enum Type {
     public static final String MODULE_ENTITY_ACTIVATION_RANGE = "entity-activation-range";
     public static final String MODULE_BUNGEECORD = "bungeecord";
 
+    // SCHEDULER
+    public static final String SCHEDULER = "scheduler";
+    public static final String SCHEDULER_ASYNC_CORE_POOL_SIZE = "async-core-pool-size";
+    public static final String SCHEDULER_ASYNC_MAX_POOL_SIZE = "async-max-pool-size";
+    public static final String SCHEDULER_ASYNC_QUEUE_SIZE = "async-queue-size";
+    public static final String SCHEDULER_ASYNC_REJECTION_POLICY = "async-rejection-policy";
+    public static final String SCHEDULER_ASYNC_MAX_TASKS_PER_PLUGIN = "async-max-tasks-per-plugin";
+    public static final String SCHEDULER_SYNC_TICK_BUDGET = "sync-tick-budget";
+
     // WORLD
     public static final String WORLD_INFINITE_WATER_SOURCE = "infinite-water-source";
     public static final String WORLD_FLOWING_LAVA_DECAY = "flowing-lava-decay";
+    public static final String WORLD_PARALLEL_GENERATION_THREADS = "parallel-generation-threads";
 
     private static final String HEADER = "1.0\n"
             + "\n"
@@ -121,6 +133,10 @@ public enum Type {
             + "# IRC: #sponge @ irc.esper.net ( http://webchat.esper.net/?channel=sponge )\n"
             + "# Forums: https://forums.spongepowered.org/\n";
 
+    // Incremented on every reload, so snapshots of config values can tell
+    // when they are out of date
+    private static volatile int generation;
+
     private Type type;
     private HoconConfigurationLoader loader;
     private CommentedConfigurationNode root = SimpleCommentedConfigurationNode.root(ConfigurationOptions.defaults()
@@ -186,6 +202,7 @@ public void reload() {
                             TypeSerializers.getDefaultSerializers().newChild().registerType(TypeToken.of(IpSet.class), new IpSet.IpSetSerializer()))
                     .setHeader(HEADER));
             this.configBase = this.configMapper.populate(this.root.getNode(this.modId));
+            generation++;
         } catch (IOException e) {
             LogManager.getLogger().error(ExceptionUtils.getStackTrace(e));
         } catch (ObjectMappingException e) {
@@ -193,6 +210,15 @@ public void reload() {
         }
     }
 
+    /**
+     * Gets the number of times any config was reloaded.
+     *
+     * @return The reload generation
+     */
+    public static int getGeneration() {
+        return generation;
+    }
+
     public CommentedConfigurationNode getRootNode() {
         return this.root.getNode(this.modId);
     }
@@ -234,10 +260,17 @@ public static class GlobalConfig extends ConfigBase {
         @Setting(value = MODULE_BUNGEECORD)
         private BungeeCordCategory bungeeCord = new BungeeCordCategory();
 
+        @Setting(value = SCHEDULER)
+        private SchedulerCategory scheduler = new SchedulerCategory();
+
         public BungeeCordCategory getBungeeCord() {
             return this.bungeeCord;
         }
 
+        public SchedulerCategory getScheduler() {
+            return this.scheduler;
+        }
+
         public SqlCategory getSql() {
             return this.sql;
         }
@@ -376,6 +409,8 @@ public static class DebugCategory extends Category {
         private boolean dumpHeapOnDeadlock = false;
         @Setting(value = DEBUG_DUMP_THREADS_ON_WARN, comment = "Dump the server thread on deadlock warning")
         private boolean dumpThreadsOnWarn = false;
+        @Setting(value = DEBUG_EVENT_TIMINGS, comment = "Record how long each event listener takes to run, see '/sponge timings'")
+        private boolean eventTimings = false;
 
         public boolean isEnableThreadContentionMonitoring() {
             return this.enableThreadContentionMonitoring;
@@ -408,6 +443,14 @@ public boolean dumpThreadsOnWarn() {
         public void setDumpThreadsOnWarn(boolean dumpThreadsOnWarn) {
             this.dumpThreadsOnWarn = dumpThreadsOnWarn;
         }
+
+        public boolean isEnableEventTimings() {
+            return this.eventTimings;
+        }
+
+        public void setEnableEventTimings(boolean eventTimings) {
+            this.eventTimings = eventTimings;
+        }
     }
 
     @ConfigSerializable
@@ -418,6 +461,10 @@ public static class GeneralCategory extends Category {
         @Setting(value = GENERAL_CHUNK_LOAD_OVERRIDE,
                 comment = "Forces Chunk Loading on provide requests (speedup for mods that don't check if a chunk is loaded)")
         private boolean chunkLoadOverride = false;
+        @Setting(value = GENERAL_PREFETCH_SPAWN_CHUNKS, comment = "Warms up the disk cache at startup by reading the saved spawn chunks of "
+                + "all worlds in the background, and prepares missing ones for custom generators with parallel generation enabled. "
+                + "Spawn chunks are still loaded and generated one at a time on the server thread")
+        private boolean prefetchSpawnChunks = false;
 
         public boolean disableWarnings() {
             return this.disableWarnings;
@@ -434,6 +481,14 @@ public boolean chunkLoadOverride() {
         public void setChunkLoadOverride(boolean chunkLoadOverride) {
             this.chunkLoadOverride = chunkLoadOverride;
         }
+
+        public boolean isPrefetchSpawnChunks() {
+            return this.prefetchSpawnChunks;
+        }
+
+        public void setPrefetchSpawnChunks(boolean prefetchSpawnChunks) {
+            this.prefetchSpawnChunks = prefetchSpawnChunks;
+        }
     }
 
     @ConfigSerializable
@@ -516,6 +571,78 @@ public boolean getIpForwarding() {
         }
     }
 
+    @ConfigSerializable
+    public static class SchedulerCategory extends Category {
+
+        @Setting(value = SCHEDULER_ASYNC_CORE_POOL_SIZE, comment = "Number of threads kept alive to run asynchronous tasks")
+        private int asyncCorePoolSize = 4;
+        @Setting(value = SCHEDULER_ASYNC_MAX_POOL_SIZE,
+                comment = "Maximum number of threads running asynchronous tasks, more than the core threads are only started when the queue is full")
+        private int asyncMaxPoolSize = 32;
+        @Setting(value = SCHEDULER_ASYNC_QUEUE_SIZE, comment = "Maximum number of asynchronous tasks waiting for a free thread")
+        private int asyncQueueSize = 1024;
+        @Setting(value = SCHEDULER_ASYNC_REJECTION_POLICY,
+                comment = "What to do with an asynchronous task when all threads are busy and the queue is full. "
+                        + "'defer' retries shortly after, 'drop' skips the execution and 'caller-runs' runs it on the scheduler thread")
+        private String asyncRejectionPolicy = "defer";
+        @Setting(value = SCHEDULER_ASYNC_MAX_TASKS_PER_PLUGIN,
+                comment = "Maximum number of asynchronous tasks a single plugin may run at the same time, further tasks are deferred. "
+                        + "Set to 0 to disable")
+        private int asyncMaxTasksPerPlugin = 0;
+        @Setting(value = SCHEDULER_SYNC_TICK_BUDGET,
+                comment = "Milliseconds synchronous tasks may take per tick, due tasks are deferred to the next tick once it is used up. "
+                        + "Plugins take turns so a single plugin can't starve the others. Set to 0 to disable")
+        private int syncTickBudget = 0;
+
+        public int getAsyncCorePoolSize() {
+            return this.asyncCorePoolSize;
+        }
+
+        public void setAsyncCorePoolSize(int asyncCorePoolSize) {
+            this.asyncCorePoolSize = asyncCorePoolSize;
+        }
+
+        public int getAsyncMaxPoolSize() {
+            return this.asyncMaxPoolSize;
+        }
+
+        public void setAsyncMaxPoolSize(int asyncMaxPoolSize) {
+            this.asyncMaxPoolSize = asyncMaxPoolSize;
+        }
+
+        public int getAsyncQueueSize() {
+            return this.asyncQueueSize;
+        }
+
+        public void setAsyncQueueSize(int asyncQueueSize) {
+            this.asyncQueueSize = asyncQueueSize;
+        }
+
+        public String getAsyncRejectionPolicy() {
+            return this.asyncRejectionPolicy;
+        }
+
+        public void setAsyncRejectionPolicy(String asyncRejectionPolicy) {
+            this.asyncRejectionPolicy = asyncRejectionPolicy;
+        }
+
+        public int getAsyncMaxTasksPerPlugin() {
+            return this.asyncMaxTasksPerPlugin;
+        }
+
+        public void setAsyncMaxTasksPerPlugin(int asyncMaxTasksPerPlugin) {
+            this.asyncMaxTasksPerPlugin = asyncMaxTasksPerPlugin;
+        }
+
+        public int getSyncTickBudget() {
+            return this.syncTickBudget;
+        }
+
+        public void setSyncTickBudget(int syncTickBudget) {
+            this.syncTickBudget = syncTickBudget;
+        }
+    }
+
     @ConfigSerializable
     public static class EntityActivationRangeCategory extends Category {
 
@@ -689,6 +816,10 @@ public static class WorldCategory extends Category {
         private boolean infiniteWaterSource = false;
         @Setting(value = WORLD_FLOWING_LAVA_DECAY, comment = "Lava behaves like vanilla water when source block is removed")
         private boolean flowingLavaDecay = false;
+        @Setting(value = WORLD_PARALLEL_GENERATION_THREADS, comment = "Number of threads used to generate the terrain of custom world generators "
+                + "ahead of time, 0 disables. Only enable if the generator populators are thread safe. Has no effect on worlds "
+                + "using a vanilla biome generator")
+        private int parallelGenerationThreads = 0;
 
         public boolean hasInfiniteWaterSource() {
             return this.infiniteWaterSource;
@@ -705,6 +836,14 @@ public boolean hasFlowingLavaDecay() {
         public void setFlowingLavaDecay(boolean flowingLavaDecay) {
             this.flowingLavaDecay = flowingLavaDecay;
         }
+
+        public int getParallelGenerationThreads() {
+            return this.parallelGenerationThreads;
+        }
+
+        public void setParallelGenerationThreads(int parallelGenerationThreads) {
+            this.parallelGenerationThreads = parallelGenerationThreads;
+        }
     }
 
     @ConfigSerializable
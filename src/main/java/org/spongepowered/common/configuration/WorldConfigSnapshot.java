@@ -0,0 +1,84 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.configuration;
+
+/**
+ * A flat, immutable copy of the settings checked on hot paths for a world,
+ * taken from its active config. It is rebuilt when any config is reloaded.
+ */
+public final class WorldConfigSnapshot {
+
+    private final SpongeConfig<?> config;
+    private final int generation;
+    private final int maxSpeed;
+    private final int maxBoundingBoxSize;
+    private final boolean logEntitySpeedRemoval;
+    private final boolean logWithStackTraces;
+
+    public WorldConfigSnapshot(SpongeConfig<?> config) {
+        this.config = config;
+        this.generation = SpongeConfig.getGeneration();
+        final SpongeConfig.ConfigBase base = config.getConfig();
+        this.maxSpeed = base.getEntity().getMaxSpeed();
+        this.maxBoundingBoxSize = base.getEntity().getMaxBoundingBoxSize();
+        this.logEntitySpeedRemoval = base.getLogging().logEntitySpeedRemoval();
+        this.logWithStackTraces = base.getLogging().logWithStackTraces();
+    }
+
+    /**
+     * Checks if a config was reloaded since this snapshot was taken.
+     *
+     * @return True if the snapshot should be rebuilt
+     */
+    public boolean isStale() {
+        return this.generation != SpongeConfig.getGeneration();
+    }
+
+    /**
+     * Gets the config this snapshot was taken from.
+     *
+     * @return The config
+     */
+    public SpongeConfig<?> getConfig() {
+        return this.config;
+    }
+
+    public int getMaxSpeed() {
+        return this.maxSpeed;
+    }
+
+    public int getMaxBoundingBoxSize() {
+        return this.maxBoundingBoxSize;
+    }
+
+    public boolean logEntitySpeedRemoval() {
+        return this.logEntitySpeedRemoval;
+    }
+
+    public boolean logWithStackTraces() {
+        return this.logWithStackTraces;
+    }
+
+}
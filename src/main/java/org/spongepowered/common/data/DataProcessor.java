@@ -52,6 +52,14 @@
      */
     int getPriority();
 
+    /**
+     * Checks if the given {@link DataHolder} is supported by this processor.
+     * The result may only depend on the type of the holder, or the item of
+     * an item stack, as it is cached by those.
+     *
+     * @param dataHolder The data holder to check
+     * @return True if the holder is supported
+     */
     boolean supports(DataHolder dataHolder);
 
     boolean supports(EntityType entityType);
@@ -24,28 +24,56 @@
  */
 package org.spongepowered.common.data;
 
-import static org.spongepowered.common.util.ReflectionUtil.createUnsafeInstance;
-
+import com.google.common.base.Objects;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.MapMaker;
 import org.spongepowered.api.CatalogType;
 import org.spongepowered.api.data.key.Key;
 import org.spongepowered.api.data.manipulator.ImmutableDataManipulator;
 import org.spongepowered.api.data.value.BaseValue;
 import org.spongepowered.api.data.value.immutable.ImmutableValue;
+import org.spongepowered.common.util.ReflectionUtil;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class ImmutableDataCachingUtil {
 
     private ImmutableDataCachingUtil() {}
 
-    private static final Cache<String, ImmutableDataManipulator<?, ?>> manipulatorCache = CacheBuilder.newBuilder().maximumSize(3000)
+    // Arguments in this range, as well as booleans, enums and catalog types,
+    // have few enough possible values to be cached without eviction
+    private static final int SMALL_INT_MIN = -128;
+    private static final int SMALL_INT_MAX = 1024;
+    private static final int MAX_CONSTRUCTOR_ARGS = 8;
+
+    private static final Cache<CacheKey, ImmutableDataManipulator<?, ?>> manipulatorCache = CacheBuilder.newBuilder().maximumSize(3000)
             .concurrencyLevel(4).build();
 
-    private static final Cache<String, ImmutableValue<?>> valueCache = CacheBuilder.newBuilder().concurrencyLevel(4).maximumSize(4000).build();
+    private static final Cache<CacheKey, ImmutableValue<?>> valueCache = CacheBuilder.newBuilder().concurrencyLevel(4).maximumSize(4000).build();
+
+    // Fast paths for manipulators with a single small argument, and values
+    // of a key with a small value, that don't need a cache key
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<Object, ImmutableDataManipulator<?, ?>>> smallManipulators = new MapMaker()
+            .concurrencyLevel(4)
+            .makeMap();
+    private static final ConcurrentMap<Key<?>, ConcurrentMap<Object, ImmutableValue<?>>> smallValues = new MapMaker()
+            .concurrencyLevel(4)
+            .makeMap();
+
+    // The constructors used so far, by class and argument count
+    private static final ConcurrentMap<Class<?>, Constructor<?>[]> constructors = new MapMaker()
+            .concurrencyLevel(4)
+            .makeMap();
+
+    private static final AtomicLong manipulatorLookups = new AtomicLong();
+    private static final AtomicLong manipulatorMisses = new AtomicLong();
+    private static final AtomicLong valueLookups = new AtomicLong();
+    private static final AtomicLong valueMisses = new AtomicLong();
 
     /**
      * Retrieves a basic manipulator from {@link Cache}. If the {@link Cache}
@@ -64,120 +92,203 @@ private ImmutableDataCachingUtil() {}
      */
     @SuppressWarnings("unchecked")
     public static <T extends ImmutableDataManipulator<?, ?>> T getManipulator(final Class<T> immutableClass, final Object... args) {
-        final String key = getKey(immutableClass, args);
-        // We can't really use the generic typing here because it's complicated...
-        try {
-            // Let's get the key
-            return (T) (Object) ImmutableDataCachingUtil.manipulatorCache.get(key,
-                    new Callable<ImmutableDataManipulator<?, ?>>() {
-                        @Override
-                        public ImmutableDataManipulator<?, ?> call() throws Exception {
-                            try {
-                                return createUnsafeInstance(immutableClass, args);
-                            } catch (InvocationTargetException e) {
-                                System.err.println("Something went gravely wrong in constructing " + immutableClass.getCanonicalName());
-                                e.printStackTrace();
-                            } catch (InstantiationException e) {
-                                e.printStackTrace();
-                            } catch (IllegalAccessException e) {
-                                e.printStackTrace();
-                            }
-                            throw new UnsupportedOperationException("Could not construct the ImmutableDataManipulator: " + immutableClass.getName());
-                        }
-                    });
-        } catch (ExecutionException e) {
-            throw new UnsupportedOperationException("Could not construct the ImmutableDataManipulator: " + immutableClass.getName(), e);
+        manipulatorLookups.incrementAndGet();
+        if (args.length == 1 && isSmall(args[0])) {
+            ConcurrentMap<Object, ImmutableDataManipulator<?, ?>> manipulators = smallManipulators.get(immutableClass);
+            if (manipulators == null) {
+                manipulators = new MapMaker().concurrencyLevel(4).makeMap();
+                final ConcurrentMap<Object, ImmutableDataManipulator<?, ?>> existing = smallManipulators.putIfAbsent(immutableClass, manipulators);
+                if (existing != null) {
+                    manipulators = existing;
+                }
+            }
+            final ImmutableDataManipulator<?, ?> manipulator = manipulators.get(args[0]);
+            if (manipulator != null) {
+                return (T) manipulator;
+            }
+            return (T) putIfAbsent(manipulators, args[0], createManipulator(immutableClass, args));
+        }
+
+        final CacheKey key = new CacheKey(immutableClass, args);
+        final ImmutableDataManipulator<?, ?> manipulator = manipulatorCache.getIfPresent(key);
+        if (manipulator != null) {
+            return (T) manipulator;
         }
+        return (T) putIfAbsent(manipulatorCache.asMap(), key, createManipulator(immutableClass, args));
     }
 
     @SuppressWarnings("unchecked")
     public static <E, V extends ImmutableValue<?>, T extends ImmutableValue<E>> T getValue(final Class<V> valueClass,
             final Key<? extends BaseValue<E>> usedKey, final E arg, final E defaultArg, final Object... extraArgs) {
-        final String key = getKey(valueClass, usedKey.getQuery().asString('.'), arg.getClass(), arg);
-        try {
-            return (T) (Object) ImmutableDataCachingUtil.valueCache.get(key,
-                    new Callable<ImmutableValue<?>>() {
-                        @Override
-                        public ImmutableValue<?> call() throws Exception {
-                            try {
-                                return createUnsafeInstance(valueClass, usedKey, defaultArg, arg, extraArgs);
-                            } catch (InvocationTargetException e) {
-                                System.err.println("Something went gravely wrong in constructing " + valueClass.getCanonicalName());
-                                e.printStackTrace();
-                            } catch (InstantiationException e) {
-                                e.printStackTrace();
-                            } catch (IllegalAccessException e) {
-                                e.printStackTrace();
-                            }
-                            throw new UnsupportedOperationException("Could not construct the ImmutableValue: " + valueClass.getName());
-                        }
-                    });
-        } catch (ExecutionException e) {
-            throw new UnsupportedOperationException("Could not construct the ImmutableValue: " + valueClass.getName(), e);
-        }
+        return (T) getWildValue(valueClass, usedKey, arg, defaultArg, extraArgs);
     }
 
     @SuppressWarnings("unchecked")
     public static <E, V extends ImmutableValue<?>, T extends ImmutableValue<E>> T getValue(final Class<V> valueClass,
             final Key<? extends BaseValue<E>> usedKey, final E arg, final E defaultArg) {
-        final String key = getKey(valueClass, usedKey.getQuery().asString('.'), arg.getClass(), arg);
+        return (T) getWildValue(valueClass, usedKey, arg, defaultArg);
+    }
+
+    public static <E, V extends ImmutableValue<?>> ImmutableValue<?> getWildValue(final Class<V> valueClass,
+            final Key<? extends BaseValue<E>> usedKey, final E arg, final E defaultArg, final Object... extraArgs) {
+        valueLookups.incrementAndGet();
+        if (extraArgs.length == 0 && isSmall(arg)) {
+            ConcurrentMap<Object, ImmutableValue<?>> values = smallValues.get(usedKey);
+            if (values == null) {
+                values = new MapMaker().concurrencyLevel(4).makeMap();
+                final ConcurrentMap<Object, ImmutableValue<?>> existing = smallValues.putIfAbsent(usedKey, values);
+                if (existing != null) {
+                    values = existing;
+                }
+            }
+            final ImmutableValue<?> value = values.get(arg);
+            if (value != null && value.getClass() == valueClass && Objects.equal(value.getDefault(), defaultArg)) {
+                return value;
+            }
+            if (value == null) {
+                return putIfAbsent(values, arg, createValue(valueClass, usedKey, arg, defaultArg, extraArgs));
+            }
+            // Another value class or default uses this key, fall back to the cache
+        }
+
+        // Bounded values also take a comparator and bounds, so every argument
+        // is part of the key
+        final Object[] keyArgs = new Object[3 + extraArgs.length];
+        keyArgs[0] = usedKey;
+        keyArgs[1] = arg;
+        keyArgs[2] = defaultArg;
+        System.arraycopy(extraArgs, 0, keyArgs, 3, extraArgs.length);
+        final CacheKey key = new CacheKey(valueClass, keyArgs);
+        final ImmutableValue<?> value = valueCache.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        return putIfAbsent(valueCache.asMap(), key, createValue(valueClass, usedKey, arg, defaultArg, extraArgs));
+    }
+
+    /**
+     * Gets the share of manipulator requests which were served from the
+     * cache.
+     *
+     * @return The hit rate, between 0 and 1
+     */
+    public static double getManipulatorHitRate() {
+        return getHitRate(manipulatorLookups.get(), manipulatorMisses.get());
+    }
+
+    /**
+     * Gets the share of value requests which were served from the cache.
+     *
+     * @return The hit rate, between 0 and 1
+     */
+    public static double getValueHitRate() {
+        return getHitRate(valueLookups.get(), valueMisses.get());
+    }
+
+    private static double getHitRate(long lookups, long misses) {
+        return lookups == 0 ? 1 : (double) (lookups - misses) / lookups;
+    }
+
+    private static boolean isSmall(Object object) {
+        if (object instanceof Boolean || object instanceof Enum || object instanceof CatalogType) {
+            return true;
+        }
+        if (object instanceof Integer || object instanceof Short || object instanceof Byte) {
+            final int value = ((Number) object).intValue();
+            return value >= SMALL_INT_MIN && value < SMALL_INT_MAX;
+        }
+        return false;
+    }
+
+    private static <K, V> V putIfAbsent(ConcurrentMap<K, V> map, K key, V value) {
+        final V existing = map.putIfAbsent(key, value);
+        return existing != null ? existing : value;
+    }
+
+    private static ImmutableDataManipulator<?, ?> createManipulator(Class<? extends ImmutableDataManipulator<?, ?>> immutableClass,
+            Object... args) {
+        manipulatorMisses.incrementAndGet();
         try {
-            return (T) (Object) ImmutableDataCachingUtil.valueCache.get(key,
-                    new Callable<ImmutableValue<?>>() {
-                        @Override
-                        public ImmutableValue<?> call() throws Exception {
-                            try {
-                                return createUnsafeInstance(valueClass, usedKey, defaultArg, arg);
-                            } catch (InvocationTargetException e) {
-                                System.err.println("Something went gravely wrong in constructing " + valueClass.getCanonicalName());
-                                e.printStackTrace();
-                            } catch (InstantiationException e) {
-                                e.printStackTrace();
-                            } catch (IllegalAccessException e) {
-                                e.printStackTrace();
-                            }
-                            throw new UnsupportedOperationException("Could not construct the ImmutableValue: " + valueClass.getName());
-                        }
-                    });
-        } catch (ExecutionException e) {
-            throw new UnsupportedOperationException("Could not construct the ImmutableValue: " + valueClass.getName(), e);
+            return construct(immutableClass, args);
+        } catch (InvocationTargetException e) {
+            throw new UnsupportedOperationException("Could not construct the ImmutableDataManipulator: " + immutableClass.getName(), e.getCause());
+        } catch (Exception e) {
+            throw new UnsupportedOperationException("Could not construct the ImmutableDataManipulator: " + immutableClass.getName(), e);
         }
     }
 
-    public static <E, V extends ImmutableValue<?>> ImmutableValue<?> getWildValue(final Class<V> valueClass, final Key<? extends BaseValue<E>> usedKey, final E arg, final E defaultArg) {
-        final String key = getKey(valueClass, usedKey.getQuery().asString('.'), arg.getClass(), arg);
+    private static ImmutableValue<?> createValue(Class<? extends ImmutableValue<?>> valueClass, Key<?> usedKey, Object arg,
+            Object defaultArg, Object... extraArgs) {
+        valueMisses.incrementAndGet();
+        final Object[] args = new Object[3 + extraArgs.length];
+        args[0] = usedKey;
+        args[1] = defaultArg;
+        args[2] = arg;
+        System.arraycopy(extraArgs, 0, args, 3, extraArgs.length);
         try {
-            return ImmutableDataCachingUtil.valueCache.get(key,
-                new Callable<ImmutableValue<?>>() {
-                    @Override
-                    public ImmutableValue<?> call() throws Exception {
-                        try {
-                            return createUnsafeInstance(valueClass, usedKey, defaultArg, arg);
-                        } catch (InvocationTargetException e) {
-                            System.err.println("Something went gravely wrong in constructing " + valueClass.getCanonicalName());
-                            e.printStackTrace();
-                        } catch (InstantiationException e) {
-                            e.printStackTrace();
-                        } catch (IllegalAccessException e) {
-                            e.printStackTrace();
-                        }
-                        throw new UnsupportedOperationException("Could not construct the ImmutableValue: " + valueClass.getName());
-                    }
-                });
-        } catch (ExecutionException e) {
+            return construct(valueClass, args);
+        } catch (InvocationTargetException e) {
+            throw new UnsupportedOperationException("Could not construct the ImmutableValue: " + valueClass.getName(), e.getCause());
+        } catch (Exception e) {
             throw new UnsupportedOperationException("Could not construct the ImmutableValue: " + valueClass.getName(), e);
         }
     }
 
-    private static String getKey(final Class<?> immutableClass, final Object... args) {
-        final StringBuilder builder = new StringBuilder(immutableClass.getCanonicalName() + ":");
-        for (Object object : args) {
-            if (object instanceof CatalogType) {
-                builder.append("{").append(((CatalogType) object).getId()).append("}");
-            } else {
-                builder.append("{").append(object.toString()).append("}");
+    @SuppressWarnings("unchecked")
+    private static <T> T construct(Class<T> objectClass, Object... args)
+            throws IllegalAccessException, InvocationTargetException, InstantiationException {
+        if (args.length >= MAX_CONSTRUCTOR_ARGS) {
+            return ReflectionUtil.createUnsafeInstance(objectClass, args);
+        }
+        Constructor<?>[] byArgCount = constructors.get(objectClass);
+        if (byArgCount == null) {
+            byArgCount = new Constructor<?>[MAX_CONSTRUCTOR_ARGS];
+            final Constructor<?>[] existing = constructors.putIfAbsent(objectClass, byArgCount);
+            if (existing != null) {
+                byArgCount = existing;
             }
         }
-        return builder.toString();
+        // Racing threads resolve the same constructor, so the plain array is fine
+        Constructor<T> constructor = (Constructor<T>) byArgCount[args.length];
+        if (constructor == null || !ReflectionUtil.isApplicable(constructor, args)) {
+            constructor = ReflectionUtil.findConstructor(objectClass, args);
+            byArgCount[args.length] = constructor;
+        }
+        return constructor.newInstance(args);
+    }
+
+    /**
+     * A cache key comparing the class and arguments of an instance by
+     * equality, so no string has to be built for every lookup.
+     */
+    private static final class CacheKey {
+
+        private final Class<?> type;
+        private final Object[] args;
+        private final int hashCode;
+
+        CacheKey(Class<?> type, Object... args) {
+            this.type = type;
+            this.args = args;
+            this.hashCode = 31 * type.hashCode() + Arrays.hashCode(args);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            final CacheKey other = (CacheKey) obj;
+            return this.hashCode == other.hashCode && this.type == other.type && Arrays.equals(this.args, other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
     }
 }
@@ -30,6 +30,7 @@
 
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.MapMaker;
 import org.spongepowered.api.data.key.Key;
@@ -80,14 +81,11 @@ public final class SpongeDataRegistry implements DataManipulatorRegistry {
         .concurrencyLevel(4)
         .makeMap();
 
-    // Processor delegates
+    // Processor delegates, these are looked up for every data holder access
+    // and never change after registration, so they use immutable maps
 
-    private final Map<Key<? extends BaseValue<?>>, ValueProcessorDelegate<?, ?>> valueDelegates = new MapMaker()
-        .concurrencyLevel(4)
-        .makeMap();
-    private final Map<Class<? extends DataManipulator<?, ?>>, DataProcessorDelegate<?, ?>> dataProcessorDelegates = new MapMaker()
-        .concurrencyLevel(4)
-        .makeMap();
+    private Map<Key<? extends BaseValue<?>>, ValueProcessorDelegate<?, ?>> valueDelegates = ImmutableMap.of();
+    private Map<Class<? extends DataManipulator<?, ?>>, DataProcessorDelegate<?, ?>> dataProcessorDelegates = ImmutableMap.of();
     private final Map<Class<? extends ImmutableDataManipulator<?, ?>>, DataProcessorDelegate<?, ?>> immutableDataProcessorDelegates = new MapMaker()
         .concurrencyLevel(4)
         .makeMap();
@@ -111,21 +109,25 @@ public static SpongeDataRegistry getInstance() {
     public static void finalizeRegistration() {
         allowRegistrations = false;
         final SpongeDataRegistry registry = instance;
+        final ImmutableMap.Builder<Key<? extends BaseValue<?>>, ValueProcessorDelegate<?, ?>> valueDelegates = ImmutableMap.builder();
         for (Map.Entry<Key<? extends BaseValue<?>>, List<ValueProcessor<?, ?>>> entry : registry.valueProcessorMap.entrySet()) {
             ImmutableList.Builder<ValueProcessor<?, ?>> valueListBuilder = ImmutableList.builder();
             Collections.sort(entry.getValue(), ComparatorUtil.VALUE_PROCESSOR_COMPARATOR);
             valueListBuilder.addAll(entry.getValue());
             final ValueProcessorDelegate<?, ?> delegate = new ValueProcessorDelegate(entry.getKey(), valueListBuilder.build());
-            registry.valueDelegates.put(entry.getKey(), delegate);
+            valueDelegates.put(entry.getKey(), delegate);
         }
+        registry.valueDelegates = valueDelegates.build();
         registry.valueProcessorMap.clear();
+        final ImmutableMap.Builder<Class<? extends DataManipulator<?, ?>>, DataProcessorDelegate<?, ?>> dataDelegates = ImmutableMap.builder();
         for (Map.Entry<Class<? extends DataManipulator<?, ?>>, List<DataProcessor<?, ?>>> entry : registry.processorMap.entrySet()) {
             ImmutableList.Builder<DataProcessor<?, ?>> dataListBuilder = ImmutableList.builder();
             Collections.sort(entry.getValue(), ComparatorUtil.DATA_PROCESSOR_COMPARATOR);
             dataListBuilder.addAll(entry.getValue());
             final DataProcessorDelegate<?, ?> delegate = new DataProcessorDelegate(dataListBuilder.build());
-            registry.dataProcessorDelegates.put(entry.getKey(), delegate);
+            dataDelegates.put(entry.getKey(), delegate);
         }
+        registry.dataProcessorDelegates = dataDelegates.build();
         registry.processorMap.clear();
         for (Map.Entry<Class<? extends ImmutableDataManipulator<?, ?>>, List<DataProcessor<?, ?>>> entry : registry.immutableProcessorMap.entrySet()) {
             ImmutableList.Builder<DataProcessor<?, ?>> dataListBuilder = ImmutableList.builder();
@@ -133,6 +133,9 @@
      * Checks if the provided {@link ValueContainer} is compatible with the
      * value of data associated with this {@link ValueProcessor}.
      *
+     * <p>The result may only depend on the type of the container, or the
+     * item of an item stack, as it is cached by those.</p>
+     *
      * @param container The value container to check
      * @return True if the container supports the value
      */
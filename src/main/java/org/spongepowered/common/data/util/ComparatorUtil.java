@@ -33,6 +33,50 @@
 
 public class ComparatorUtil {
 
+    // Shared instances, so that values created with the same comparator are
+    // equal and can be cached
+    private static final Comparator<Integer> INT_COMPARATOR = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return o1.compareTo(o2);
+        }
+    };
+
+    private static final Comparator<Long> LONG_COMPARATOR = new Comparator<Long>() {
+        @Override
+        public int compare(Long o1, Long o2) {
+            return o1.compareTo(o2);
+        }
+    };
+
+    private static final Comparator<Short> SHORT_COMPARATOR = new Comparator<Short>() {
+        @Override
+        public int compare(Short o1, Short o2) {
+            return o1.compareTo(o2);
+        }
+    };
+
+    private static final Comparator<Byte> BYTE_COMPARATOR = new Comparator<Byte>() {
+        @Override
+        public int compare(Byte o1, Byte o2) {
+            return o1.compareTo(o2);
+        }
+    };
+
+    private static final Comparator<Double> DOUBLE_COMPARATOR = new Comparator<Double>() {
+        @Override
+        public int compare(Double o1, Double o2) {
+            return o1.compareTo(o2);
+        }
+    };
+
+    private static final Comparator<Float> FLOAT_COMPARATOR = new Comparator<Float>() {
+        @Override
+        public int compare(Float o1, Float o2) {
+            return o1.compareTo(o2);
+        }
+    };
+
     /**
      * This will compare two {@link ValueProcessor}s where the higher priority
      * will compare opposite to the lower prioirty.
@@ -66,57 +110,27 @@ public int compare(BlockValueProcessor<?, ?> o1, BlockValueProcessor<?, ?> o2) {
     };
 
     public static Comparator<Integer> intComparator() {
-        return new Comparator<Integer>() {
-            @Override
-            public int compare(Integer o1, Integer o2) {
-                return o1.compareTo(o2);
-            }
-        };
+        return INT_COMPARATOR;
     }
 
     public static Comparator<Long> longComparator() {
-        return new Comparator<Long>() {
-            @Override
-            public int compare(Long o1, Long o2) {
-                return o1.compareTo(o2);
-            }
-        };
+        return LONG_COMPARATOR;
     }
 
     public static Comparator<Short> shortComparator() {
-        return new Comparator<Short>() {
-            @Override
-            public int compare(Short o1, Short o2) {
-                return o1.compareTo(o2);
-            }
-        };
+        return SHORT_COMPARATOR;
     }
 
     public static Comparator<Byte> byteComparator() {
-        return new Comparator<Byte>() {
-            @Override
-            public int compare(Byte o1, Byte o2) {
-                return o1.compareTo(o2);
-            }
-        };
+        return BYTE_COMPARATOR;
     }
 
     public static Comparator<Double> doubleComparator() {
-        return new Comparator<Double>() {
-            @Override
-            public int compare(Double o1, Double o2) {
-                return o1.compareTo(o2);
-            }
-        };
+        return DOUBLE_COMPARATOR;
     }
 
     public static Comparator<Float> floatComparator() {
-        return new Comparator<Float>() {
-            @Override
-            public int compare(Float o1, Float o2) {
-                return o1.compareTo(o2);
-            }
-        };
+        return FLOAT_COMPARATOR;
     }
 
 }
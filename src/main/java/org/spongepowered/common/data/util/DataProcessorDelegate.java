@@ -26,6 +26,7 @@
 
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
 import org.spongepowered.api.data.DataContainer;
 import org.spongepowered.api.data.DataHolder;
 import org.spongepowered.api.data.DataTransactionBuilder;
@@ -38,14 +39,37 @@
 import org.spongepowered.api.entity.EntityType;
 import org.spongepowered.common.data.DataProcessor;
 
+import java.util.Map;
+
 public final class DataProcessorDelegate<M extends DataManipulator<M, I>, I extends ImmutableDataManipulator<I, M>> implements DataProcessor<M, I> {
 
     private final ImmutableList<DataProcessor<M, I>> processors;
+    // The processors supporting a holder, by its dispatch key
+    private final Map<Object, ImmutableList<DataProcessor<M, I>>> dispatchTable = new MapMaker()
+        .concurrencyLevel(4)
+        .weakKeys()
+        .makeMap();
 
     public DataProcessorDelegate(ImmutableList<DataProcessor<M, I>> processors) {
         this.processors = processors;
     }
 
+    private ImmutableList<DataProcessor<M, I>> getProcessors(DataHolder dataHolder) {
+        final Object dispatchKey = DataUtil.getDispatchKey(dataHolder);
+        ImmutableList<DataProcessor<M, I>> supporting = this.dispatchTable.get(dispatchKey);
+        if (supporting == null) {
+            ImmutableList.Builder<DataProcessor<M, I>> builder = ImmutableList.builder();
+            for (DataProcessor<M, I> processor : this.processors) {
+                if (processor.supports(dataHolder)) {
+                    builder.add(processor);
+                }
+            }
+            supporting = builder.build();
+            this.dispatchTable.put(dispatchKey, supporting);
+        }
+        return supporting;
+    }
+
     @Override
     public int getPriority() {
         return Integer.MAX_VALUE;
@@ -53,12 +77,7 @@ public int getPriority() {
 
     @Override
     public boolean supports(DataHolder dataHolder) {
-        for (DataProcessor<M, I> processor : this.processors) {
-            if (processor.supports(dataHolder)) {
-                return true;
-            }
-        }
-        return false;
+        return !getProcessors(dataHolder).isEmpty();
     }
 
     @Override
@@ -68,12 +87,10 @@ public boolean supports(EntityType entityType) {
 
     @Override
     public Optional<M> from(DataHolder dataHolder) {
-        for (DataProcessor<M, I> processor : this.processors) {
-            if (processor.supports(dataHolder)) {
-                final Optional<M> optional = processor.from(dataHolder);
-                if (optional.isPresent()) {
-                    return optional;
-                }
+        for (DataProcessor<M, I> processor : getProcessors(dataHolder)) {
+            final Optional<M> optional = processor.from(dataHolder);
+            if (optional.isPresent()) {
+                return optional;
             }
         }
         return Optional.absent();
@@ -81,12 +98,10 @@ public Optional<M> from(DataHolder dataHolder) {
 
     @Override
     public Optional<M> fill(DataHolder dataHolder, M manipulator, MergeFunction overlap) {
-        for (DataProcessor<M, I> processor : this.processors) {
-            if (processor.supports(dataHolder)) {
-                final Optional<M> optional = processor.fill(dataHolder, manipulator, overlap);
-                if (optional.isPresent()) {
-                    return optional;
-                }
+        for (DataProcessor<M, I> processor : getProcessors(dataHolder)) {
+            final Optional<M> optional = processor.fill(dataHolder, manipulator, overlap);
+            if (optional.isPresent()) {
+                return optional;
             }
         }
         return Optional.absent();
@@ -105,12 +120,10 @@ public Optional<M> fill(DataContainer container, M m) {
 
     @Override
     public DataTransactionResult set(DataHolder dataHolder, M manipulator, MergeFunction function) {
-        for (DataProcessor<M, I> processor : this.processors) {
-            if (processor.supports(dataHolder)) {
-                final DataTransactionResult result = processor.set(dataHolder, manipulator, function);
-                if (!result.getType().equals(DataTransactionResult.Type.FAILURE)) {
-                    return result;
-                }
+        for (DataProcessor<M, I> processor : getProcessors(dataHolder)) {
+            final DataTransactionResult result = processor.set(dataHolder, manipulator, function);
+            if (!result.getType().equals(DataTransactionResult.Type.FAILURE)) {
+                return result;
             }
         }
         return DataTransactionBuilder.failNoData();
@@ -129,12 +142,10 @@ public Optional<I> with(Key<? extends BaseValue<?>> key, Object value, I immutab
 
     @Override
     public DataTransactionResult remove(DataHolder dataHolder) {
-        for (DataProcessor<M, I> processor : this.processors) {
-            if (processor.supports(dataHolder)) {
-                final DataTransactionResult result = processor.remove(dataHolder);
-                if (!result.getType().equals(DataTransactionResult.Type.FAILURE)) {
-                    return result;
-                }
+        for (DataProcessor<M, I> processor : getProcessors(dataHolder)) {
+            final DataTransactionResult result = processor.remove(dataHolder);
+            if (!result.getType().equals(DataTransactionResult.Type.FAILURE)) {
+                return result;
             }
         }
         return DataTransactionBuilder.failNoData();
@@ -142,12 +153,10 @@ public DataTransactionResult remove(DataHolder dataHolder) {
 
     @Override
     public Optional<M> createFrom(DataHolder dataHolder) {
-        for (DataProcessor<M, I> processor : this.processors) {
-            if (processor.supports(dataHolder)) {
-                final Optional<M> optional = processor.createFrom(dataHolder);
-                if (optional.isPresent()) {
-                    return optional;
-                }
+        for (DataProcessor<M, I> processor : getProcessors(dataHolder)) {
+            final Optional<M> optional = processor.createFrom(dataHolder);
+            if (optional.isPresent()) {
+                return optional;
             }
         }
         return Optional.absent();
@@ -27,6 +27,7 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Optional;
+import net.minecraft.item.ItemStack;
 import org.spongepowered.api.data.DataHolder;
 import org.spongepowered.api.data.DataQuery;
 import org.spongepowered.api.data.DataTransactionBuilder;
@@ -44,6 +45,21 @@
 @SuppressWarnings("unchecked")
 public class DataUtil {
 
+    /**
+     * Gets the object which decides which processors support the given
+     * holder. Processors only look at the type of a holder, and for item
+     * stacks at the item, so their results can be cached per key.
+     *
+     * @param holder The holder
+     * @return The key to cache processor lookups by
+     */
+    public static Object getDispatchKey(Object holder) {
+        if (holder instanceof ItemStack && ((ItemStack) holder).getItem() != null) {
+            return ((ItemStack) holder).getItem();
+        }
+        return holder.getClass();
+    }
+
     public static DataView checkDataExists(final DataView dataView, final DataQuery query) throws InvalidDataException {
         if (!checkNotNull(dataView).contains(checkNotNull(query))) {
             throw new InvalidDataException("Missing data for query: " + query.asString('.'));
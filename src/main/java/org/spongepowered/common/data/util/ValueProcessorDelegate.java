@@ -26,6 +26,7 @@
 
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
 import org.spongepowered.api.data.DataTransactionBuilder;
 import org.spongepowered.api.data.DataTransactionResult;
 import org.spongepowered.api.data.key.Key;
@@ -33,6 +34,8 @@
 import org.spongepowered.api.data.value.ValueContainer;
 import org.spongepowered.common.data.ValueProcessor;
 
+import java.util.Map;
+
 /**
  * This is really just a lazy class to handle processing on multiple
  * {@link ValueProcessor} registrations.
@@ -44,12 +47,33 @@
 
     private final Key<V> key;
     private final ImmutableList<ValueProcessor<E, V>> processors;
+    // The processors supporting a container, by its dispatch key
+    private final Map<Object, ImmutableList<ValueProcessor<E, V>>> dispatchTable = new MapMaker()
+        .concurrencyLevel(4)
+        .weakKeys()
+        .makeMap();
 
     public ValueProcessorDelegate(Key<V> key, ImmutableList<ValueProcessor<E, V>> processors) {
         this.key = key;
         this.processors = processors;
     }
 
+    private ImmutableList<ValueProcessor<E, V>> getProcessors(ValueContainer<?> container) {
+        final Object dispatchKey = DataUtil.getDispatchKey(container);
+        ImmutableList<ValueProcessor<E, V>> supporting = this.dispatchTable.get(dispatchKey);
+        if (supporting == null) {
+            ImmutableList.Builder<ValueProcessor<E, V>> builder = ImmutableList.builder();
+            for (ValueProcessor<E, V> processor : this.processors) {
+                if (processor.supports(container)) {
+                    builder.add(processor);
+                }
+            }
+            supporting = builder.build();
+            this.dispatchTable.put(dispatchKey, supporting);
+        }
+        return supporting;
+    }
+
     @Override
     public Key<? extends BaseValue<E>> getKey() {
         return this.key;
@@ -62,12 +86,10 @@ public int getPriority() {
 
     @Override
     public Optional<E> getValueFromContainer(ValueContainer<?> container) {
-        for (ValueProcessor<E, V> processor : this.processors) {
-            if (processor.supports(container)) {
-                final Optional<E> optional = processor.getValueFromContainer(container);
-                if (optional.isPresent()) {
-                    return optional;
-                }
+        for (ValueProcessor<E, V> processor : getProcessors(container)) {
+            final Optional<E> optional = processor.getValueFromContainer(container);
+            if (optional.isPresent()) {
+                return optional;
             }
         }
         return Optional.absent();
@@ -75,12 +97,10 @@ public Optional<E> getValueFromContainer(ValueContainer<?> container) {
 
     @Override
     public Optional<V> getApiValueFromContainer(ValueContainer<?> container) {
-        for (ValueProcessor<E, V> processor : this.processors) {
-            if (processor.supports(container)) {
-                final Optional<V> optional = processor.getApiValueFromContainer(container);
-                if (optional.isPresent()) {
-                    return optional;
-                }
+        for (ValueProcessor<E, V> processor : getProcessors(container)) {
+            final Optional<V> optional = processor.getApiValueFromContainer(container);
+            if (optional.isPresent()) {
+                return optional;
             }
         }
         return Optional.absent();
@@ -88,22 +108,15 @@ public Optional<V> getApiValueFromContainer(ValueContainer<?> container) {
 
     @Override
     public boolean supports(ValueContainer<?> container) {
-        for (ValueProcessor<E, V> processor : this.processors) {
-            if (processor.supports(container)) {
-                return true;
-            }
-        }
-        return false;
+        return !getProcessors(container).isEmpty();
     }
 
     @Override
     public DataTransactionResult offerToStore(ValueContainer<?> container, E value) {
-        for (ValueProcessor<E, V> processor : this.processors) {
-            if (processor.supports(container)) {
-                final DataTransactionResult result = processor.offerToStore(container, value);
-                if (!result.getType().equals(DataTransactionResult.Type.FAILURE)) {
-                    return result;
-                }
+        for (ValueProcessor<E, V> processor : getProcessors(container)) {
+            final DataTransactionResult result = processor.offerToStore(container, value);
+            if (!result.getType().equals(DataTransactionResult.Type.FAILURE)) {
+                return result;
             }
         }
         return DataTransactionBuilder.failNoData();
@@ -111,12 +124,10 @@ public DataTransactionResult offerToStore(ValueContainer<?> container, E value)
 
     @Override
     public DataTransactionResult removeFrom(ValueContainer<?> container) {
-        for (ValueProcessor<E, V> processor : this.processors) {
-            if (processor.supports(container)) {
-                final DataTransactionResult result = processor.removeFrom(container);
-                if (!result.getType().equals(DataTransactionResult.Type.FAILURE)) {
-                    return result;
-                }
+        for (ValueProcessor<E, V> processor : getProcessors(container)) {
+            final DataTransactionResult result = processor.removeFrom(container);
+            if (!result.getType().equals(DataTransactionResult.Type.FAILURE)) {
+                return result;
             }
         }
         return DataTransactionBuilder.failNoData();
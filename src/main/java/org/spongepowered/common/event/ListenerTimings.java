@@ -0,0 +1,109 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Invocation statistics of a single {@link RegisteredListener}.
+ *
+ * <p>Counts and totals are striped by thread so that listeners invoked from
+ * several threads at once don't contend on a single counter. The values
+ * returned by the getters are sums over all stripes and are only eventually
+ * consistent with each other.</p>
+ */
+public final class ListenerTimings {
+
+    // Must be a power of two
+    private static final int STRIPES = 8;
+    // Spread the stripes over separate cache lines
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * PADDING);
+    private final AtomicLongArray totals = new AtomicLongArray(STRIPES * PADDING);
+    private final AtomicLong max = new AtomicLong();
+
+    ListenerTimings() {
+    }
+
+    void record(long nanos) {
+        int index = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING;
+        this.counts.incrementAndGet(index);
+        this.totals.addAndGet(index, nanos);
+
+        long current = this.max.get();
+        while (nanos > current && !this.max.compareAndSet(current, nanos)) {
+            current = this.max.get();
+        }
+    }
+
+    /**
+     * Gets how often the listener was invoked.
+     *
+     * @return The invocation count
+     */
+    public long getCount() {
+        return sum(this.counts);
+    }
+
+    /**
+     * Gets the total time spent in the listener.
+     *
+     * @return The total time, in nanoseconds
+     */
+    public long getTotalNanos() {
+        return sum(this.totals);
+    }
+
+    /**
+     * Gets the longest single invocation of the listener.
+     *
+     * @return The maximum time, in nanoseconds
+     */
+    public long getMaxNanos() {
+        return this.max.get();
+    }
+
+    /**
+     * Resets all statistics to zero.
+     */
+    public void reset() {
+        for (int i = 0; i < STRIPES * PADDING; i += PADDING) {
+            this.counts.set(i, 0);
+            this.totals.set(i, 0);
+        }
+        this.max.set(0);
+    }
+
+    private static long sum(AtomicLongArray array) {
+        long sum = 0;
+        for (int i = 0; i < STRIPES * PADDING; i += PADDING) {
+            sum += array.get(i);
+        }
+        return sum;
+    }
+
+}
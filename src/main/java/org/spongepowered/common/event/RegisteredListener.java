@@ -48,14 +48,19 @@
 
     private final boolean ignoreCancelled;
     private final boolean beforeModifications;
+    private final boolean asyncSafe;
 
-    RegisteredListener(PluginContainer plugin, Class<T> eventClass, Order order, EventListener<? super T> listener, boolean ignoreCancelled, boolean beforeModifications) {
+    private final ListenerTimings timings = new ListenerTimings();
+
+    RegisteredListener(PluginContainer plugin, Class<T> eventClass, Order order, EventListener<? super T> listener, boolean ignoreCancelled,
+            boolean beforeModifications, boolean asyncSafe) {
         this.plugin = checkNotNull(plugin, "plugin");
         this.eventClass = checkNotNull(eventClass, "eventClass");
         this.order = checkNotNull(order, "order");
         this.listener = checkNotNull(listener, "listener");
         this.ignoreCancelled = ignoreCancelled;
         this.beforeModifications = beforeModifications;
+        this.asyncSafe = asyncSafe;
     }
 
     public PluginContainer getPlugin() {
@@ -74,6 +79,19 @@ public boolean isBeforeModifications() {
         return this.beforeModifications;
     }
 
+    /**
+     * Gets whether this listener may be called off the main thread.
+     *
+     * @return Whether this listener is {@link AsyncSafe}
+     */
+    public boolean isAsyncSafe() {
+        return this.asyncSafe;
+    }
+
+    public ListenerTimings getTimings() {
+        return this.timings;
+    }
+
     @Override
     public Object getHandle() {
         if (this.listener instanceof SpongeEventListener) {
@@ -92,6 +110,22 @@ public void handle(T event) throws Exception {
         this.listener.handle(event);
     }
 
+    /**
+     * Calls {@link #handle(Event)} and records how long the call took in
+     * this listener's {@link ListenerTimings}.
+     *
+     * @param event The event
+     * @throws Exception If the listener throws an exception
+     */
+    public void handleTimed(T event) throws Exception {
+        long start = System.nanoTime();
+        try {
+            handle(event);
+        } finally {
+            this.timings.record(System.nanoTime() - start);
+        }
+    }
+
     @Override
     public int compareTo(RegisteredListener<?> handler) {
         return this.order.compareTo(handler.order);
@@ -99,12 +133,16 @@ public int compareTo(RegisteredListener<?> handler) {
 
     public static final class Cache {
 
+        // The event type and its supertypes, in the order their listeners
+        // are baked
+        private final List<Class<?>> types;
         private final List<RegisteredListener<?>> listeners;
         private final EnumMap<Order, List<RegisteredListener<?>>> listenersByOrder;
 
         private static final Order[] ORDERS = Order.values();
 
-        Cache(List<RegisteredListener<?>> listeners) {
+        Cache(List<Class<?>> types, List<RegisteredListener<?>> listeners) {
+            this.types = types;
             this.listeners = listeners;
 
             this.listenersByOrder = Maps.newEnumMap(Order.class);
@@ -116,6 +154,52 @@ public static final class Cache {
             }
         }
 
+        /**
+         * Creates a copy of this cache which additionally contains the given
+         * listener, at the position it would have if the cache was baked
+         * again: after all listeners of an earlier {@link Order}, and after
+         * the listeners of the same order registered for the same or a more
+         * specific event type.
+         *
+         * @param listener The listener to add
+         * @return The new cache
+         */
+        Cache with(RegisteredListener<?> listener) {
+            int rank = this.types.indexOf(listener.getEventClass());
+            int index = this.listeners.size();
+            for (int i = 0; i < this.listeners.size(); i++) {
+                RegisteredListener<?> other = this.listeners.get(i);
+                int order = other.compareTo(listener);
+                if (order > 0 || order == 0 && this.types.indexOf(other.getEventClass()) > rank) {
+                    index = i;
+                    break;
+                }
+            }
+
+            List<RegisteredListener<?>> listeners = Lists.newArrayListWithCapacity(this.listeners.size() + 1);
+            listeners.addAll(this.listeners.subList(0, index));
+            listeners.add(listener);
+            listeners.addAll(this.listeners.subList(index, this.listeners.size()));
+            return new Cache(this.types, listeners);
+        }
+
+        /**
+         * Creates a copy of this cache without the given listener.
+         *
+         * @param listener The listener to remove
+         * @return The new cache, or this cache if it didn't contain the
+         *     listener
+         */
+        Cache without(RegisteredListener<?> listener) {
+            if (!this.listeners.contains(listener)) {
+                return this;
+            }
+
+            List<RegisteredListener<?>> listeners = Lists.newArrayList(this.listeners);
+            listeners.remove(listener);
+            return new Cache(this.types, listeners);
+        }
+
         public List<RegisteredListener<?>> getListeners() {
             return this.listeners;
         }
@@ -29,13 +29,19 @@
 
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.reflect.TypeToken;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import net.minecraft.server.MinecraftServer;
 import org.spongepowered.api.event.Cancellable;
 import org.spongepowered.api.event.Event;
 import org.spongepowered.api.event.EventListener;
@@ -46,12 +52,22 @@
 import org.spongepowered.api.service.event.EventManager;
 import org.spongepowered.common.Sponge;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -59,6 +75,12 @@
 @Singleton
 public class SpongeEventManager implements EventManager {
 
+    private static volatile boolean timingsEnabled;
+
+    private static final int ASYNC_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int ASYNC_QUEUE_SIZE = 1024;
+    private static final long MAIN_THREAD_TIMEOUT_SECONDS = 30;
+
     private final Object lock = new Object();
 
     private final PluginManager pluginManager;
@@ -67,36 +89,48 @@ public class SpongeEventManager implements EventManager {
 
     /**
      * A cache of all the handlers for an event type for quick event posting.
-     * <p>The cache is currently entirely invalidated if handlers are added or removed.</p>
+     *
+     * <p>Entries are immutable and are only replaced while holding
+     * {@link #lock}, so posting an event never has to acquire the lock once
+     * the event type has been baked. When handlers are added or removed only
+     * the entries for event types that are subtypes of the handler's event
+     * class are updated.</p>
      */
-    private final LoadingCache<Class<? extends Event>, RegisteredListener.Cache> handlersCache =
-            CacheBuilder.newBuilder().build(new CacheLoader<Class<? extends Event>, RegisteredListener.Cache>() {
-                @Override
-                public RegisteredListener.Cache load(Class<? extends Event> eventClass) throws Exception {
-                    return bakeHandlers(eventClass);
-                }
-            });
+    private final ConcurrentMap<Class<?>, RegisteredListener.Cache> handlersCache = Maps.newConcurrentMap();
+
+    /**
+     * The executor used by {@link #postAsync(Event)}. Bounded in both threads
+     * and queued events, falling back to posting on the calling thread when
+     * saturated.
+     */
+    private final ListeningExecutorService asyncExecutor;
 
     @Inject
     public SpongeEventManager(PluginManager pluginManager) {
         this.pluginManager = checkNotNull(pluginManager, "pluginManager");
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(ASYNC_THREADS, ASYNC_THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(ASYNC_QUEUE_SIZE),
+                new ThreadFactoryBuilder().setNameFormat("Sponge Async Event Thread #%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        this.asyncExecutor = MoreExecutors.listeningDecorator(executor);
     }
 
+    // Must be called while holding the lock
     private RegisteredListener.Cache bakeHandlers(Class<?> rootEvent) {
         List<RegisteredListener<?>> handlers = Lists.newArrayList();
         @SuppressWarnings({"unchecked", "rawtypes"})
         Set<Class<?>> types = (Set) TypeToken.of(rootEvent).getTypes().rawTypes();
 
-        synchronized (this.lock) {
-            for (Class<?> type : types) {
-                if (Event.class.isAssignableFrom(type)) {
-                    handlers.addAll(this.handlersByEvent.get(type));
-                }
+        for (Class<?> type : types) {
+            if (Event.class.isAssignableFrom(type)) {
+                handlers.addAll(this.handlersByEvent.get(type));
             }
         }
 
         Collections.sort(handlers);
-        return new RegisteredListener.Cache(handlers);
+        return new RegisteredListener.Cache(ImmutableList.copyOf(types), handlers);
     }
 
     private static boolean isValidHandler(Method method) {
@@ -117,16 +151,40 @@ private void register(RegisteredListener<?> handler) {
 
     private void register(List<RegisteredListener<?>> handlers) {
         synchronized (this.lock) {
-            boolean changed = false;
+            List<RegisteredListener<?>> added = Lists.newArrayList();
 
             for (RegisteredListener<?> handler : handlers) {
                 if (this.handlersByEvent.put(handler.getEventClass(), handler)) {
-                    changed = true;
+                    added.add(handler);
                 }
             }
 
-            if (changed) {
-                this.handlersCache.invalidateAll();
+            if (!added.isEmpty()) {
+                updateHandlerCaches(added, true);
+            }
+        }
+    }
+
+    /**
+     * Patches the baked handler caches of every event type affected by the
+     * given handlers. Must be called while holding {@link #lock}.
+     *
+     * @param changed The handlers that were added or removed
+     * @param add Whether the handlers were added or removed
+     */
+    private void updateHandlerCaches(List<RegisteredListener<?>> changed, boolean add) {
+        for (Map.Entry<Class<?>, RegisteredListener.Cache> entry : this.handlersCache.entrySet()) {
+            Class<?> eventClass = entry.getKey();
+            RegisteredListener.Cache cache = entry.getValue();
+
+            for (RegisteredListener<?> handler : changed) {
+                if (handler.getEventClass().isAssignableFrom(eventClass)) {
+                    cache = add ? cache.with(handler) : cache.without(handler);
+                }
+            }
+
+            if (cache != entry.getValue()) {
+                this.handlersCache.put(eventClass, cache);
             }
         }
     }
@@ -152,7 +210,7 @@ public void registerListener(PluginContainer plugin, Object listenerObject) {
                         continue;
                     }
 
-                    handlers.add(createRegistration(plugin, eventClass, listener, handler));
+                    handlers.add(createRegistration(plugin, eventClass, listener, isAsyncSafe(method), handler));
                 } else {
                     Sponge.getLogger().warn("The method {} on {} has @{} but has the wrong signature", method, handle.getName(),
                             Listener.class.getName());
@@ -164,13 +222,32 @@ public void registerListener(PluginContainer plugin, Object listenerObject) {
     }
 
     private static <T extends Event> RegisteredListener<T> createRegistration(PluginContainer plugin, Class<T> eventClass, Listener listener,
-            EventListener<? super T> handler) {
-        return createRegistration(plugin, eventClass, listener.order(), listener.ignoreCancelled(), listener.beforeModifications(), handler);
+            boolean asyncSafe, EventListener<? super T> handler) {
+        return new RegisteredListener<T>(plugin, eventClass, listener.order(), handler, listener.ignoreCancelled(),
+                listener.beforeModifications(), asyncSafe);
     }
 
     private static <T extends Event> RegisteredListener<T> createRegistration(PluginContainer plugin, Class<T> eventClass, Order order,
             boolean ignoreCancelled, boolean beforeModifications, EventListener<? super T> handler) {
-        return new RegisteredListener<T>(plugin, eventClass, order, handler, ignoreCancelled, beforeModifications);
+        return new RegisteredListener<T>(plugin, eventClass, order, handler, ignoreCancelled, beforeModifications,
+                isAsyncSafe(handler.getClass()));
+    }
+
+    /**
+     * Checks whether a listener method or class is marked as safe to be called
+     * off the main thread. Plugins can't depend on this implementation, so any
+     * runtime annotation named like {@link AsyncSafe} is accepted.
+     *
+     * @param element The listener method or class
+     * @return Whether the listener is async safe
+     */
+    static boolean isAsyncSafe(AnnotatedElement element) {
+        for (Annotation annotation : element.getAnnotations()) {
+            if (annotation.annotationType().getSimpleName().equals(AsyncSafe.class.getSimpleName())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private PluginContainer getPlugin(Object plugin) {
@@ -202,19 +279,19 @@ public <T extends Event> void registerListener(Object plugin, Class<T> eventClas
 
     private void unregister(Predicate<RegisteredListener<?>> unregister) {
         synchronized (this.lock) {
-            boolean changed = false;
+            List<RegisteredListener<?>> removed = Lists.newArrayList();
 
             Iterator<RegisteredListener<?>> itr = this.handlersByEvent.values().iterator();
             while (itr.hasNext()) {
                 RegisteredListener<?> handler = itr.next();
                 if (unregister.apply(handler)) {
                     itr.remove();
-                    changed = true;
+                    removed.add(handler);
                 }
             }
 
-            if (changed) {
-                this.handlersCache.invalidateAll();
+            if (!removed.isEmpty()) {
+                updateHandlerCaches(removed, false);
             }
         }
     }
@@ -244,22 +321,186 @@ public boolean apply(RegisteredListener<?> handler) {
     }
 
     protected RegisteredListener.Cache getHandlerCache(Event event) {
-        return this.handlersCache.getUnchecked(checkNotNull(event, "event").getClass());
+        return getHandlerCache(checkNotNull(event, "event").getClass());
+    }
+
+    private RegisteredListener.Cache getHandlerCache(Class<?> eventClass) {
+        RegisteredListener.Cache cache = this.handlersCache.get(eventClass);
+        if (cache != null) {
+            return cache;
+        }
+
+        synchronized (this.lock) {
+            // Baking while holding the lock ensures no registration can be
+            // missed between baking and publishing the cache
+            cache = this.handlersCache.get(eventClass);
+            if (cache == null) {
+                cache = bakeHandlers(eventClass);
+                this.handlersCache.put(eventClass, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Checks whether any listener would receive an event of the given type.
+     *
+     * <p>This allows callers on hot paths to skip constructing an event (and
+     * everything needed to construct it) when nothing is listening. The
+     * result is backed by the same baked cache used for posting, so it is
+     * updated as soon as listeners are registered or unregistered.</p>
+     *
+     * @param eventClass The event type, usually the API interface of the
+     *     event that will be posted
+     * @return Whether there are any listeners for the event type
+     */
+    public boolean hasListeners(Class<? extends Event> eventClass) {
+        return !getHandlerCache(checkNotNull(eventClass, "eventClass")).getListeners().isEmpty();
+    }
+
+    /**
+     * Gets a snapshot of all currently registered listeners.
+     *
+     * @return The registered listeners
+     */
+    public List<RegisteredListener<?>> getRegisteredListeners() {
+        synchronized (this.lock) {
+            return Lists.newArrayList(this.handlersByEvent.values());
+        }
+    }
+
+    public static boolean areTimingsEnabled() {
+        return timingsEnabled;
+    }
+
+    /**
+     * Sets whether the time spent in each listener should be recorded in its
+     * {@link RegisteredListener#getTimings() timings}.
+     *
+     * @param enabled Whether to record listener timings
+     */
+    public static void setTimingsEnabled(boolean enabled) {
+        timingsEnabled = enabled;
     }
 
-    @SuppressWarnings("unchecked")
     protected static boolean post(Event event, List<RegisteredListener<?>> handlers) {
-        for (@SuppressWarnings("rawtypes") RegisteredListener handler : handlers) {
-            try {
+        for (RegisteredListener<?> handler : handlers) {
+            post(event, handler);
+        }
+
+        return event instanceof Cancellable && ((Cancellable) event).isCancelled();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void post(Event event, RegisteredListener handler) {
+        try {
+            if (timingsEnabled) {
+                handler.handleTimed(event);
+            } else {
                 handler.handle(event);
-            } catch (Throwable e) {
-                Sponge.getLogger().error("Could not pass {} to {}", event.getClass().getSimpleName(), handler.getPlugin(), e);
+            }
+        } catch (Throwable e) {
+            Sponge.getLogger().error("Could not pass {} to {}", event.getClass().getSimpleName(), handler.getPlugin(), e);
+        }
+    }
+
+    /**
+     * Posts an event to its listeners on one of the async event threads.
+     *
+     * <p>The listeners are called one after another in the same order as by
+     * {@link #post(Event)}, so later listeners see the changes and the
+     * cancellation state of earlier ones. Listeners which are not marked as
+     * {@link AsyncSafe} are called on the main thread while the async
+     * event thread waits for them, so the main thread must never block on
+     * the returned future.</p>
+     *
+     * <p>If all async event threads are busy and the queue is full, the
+     * event is posted on the calling thread instead.</p>
+     *
+     * @param event The event
+     * @return A future that completes with whether the event was cancelled
+     *     once all listeners were called
+     */
+    public ListenableFuture<Boolean> postAsync(final Event event) {
+        final List<RegisteredListener<?>> handlers = getHandlerCache(event).getListeners();
+        if (handlers.isEmpty()) {
+            return Futures.immediateFuture(event instanceof Cancellable && ((Cancellable) event).isCancelled());
+        }
+
+        return this.asyncExecutor.submit(new Callable<Boolean>() {
+
+            @Override
+            public Boolean call() throws Exception {
+                return postAsync(event, handlers);
+            }
+        });
+    }
+
+    protected static boolean postAsync(final Event event, List<RegisteredListener<?>> handlers) {
+        return postAsync(event, handlers, MAIN_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    static boolean postAsync(final Event event, List<RegisteredListener<?>> handlers, long timeout, TimeUnit unit) {
+        MinecraftServer server = MinecraftServer.getServer();
+        for (final RegisteredListener<?> handler : handlers) {
+            if (handler.isAsyncSafe() || server == null || server.isCallingFromMinecraftThread()) {
+                post(event, handler);
+                continue;
+            }
+
+            // The main thread stops running scheduled tasks once the server
+            // shuts down, the remaining listeners are skipped in that case
+            if (!server.isServerRunning()) {
+                Sponge.getLogger().warn("Skipped passing {} to {}, the server is stopping", event.getClass().getSimpleName(),
+                        handler.getPlugin());
+                break;
+            }
+            ListenableFuture<?> future = server.addScheduledTask(new Runnable() {
+
+                @Override
+                public void run() {
+                    post(event, handler);
+                }
+            });
+            try {
+                future.get(timeout, unit);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abandon(future);
+                Sponge.getLogger().error("Interrupted while passing {} to {}", event.getClass().getSimpleName(), handler.getPlugin(), e);
+                break;
+            } catch (TimeoutException e) {
+                abandon(future);
+                Sponge.getLogger().error("Timed out waiting for the main thread to pass {} to {}", event.getClass().getSimpleName(),
+                        handler.getPlugin());
+                break;
+            } catch (ExecutionException e) {
+                Sponge.getLogger().error("Could not pass {} to {}", event.getClass().getSimpleName(), handler.getPlugin(), e.getCause());
             }
         }
 
         return event instanceof Cancellable && ((Cancellable) event).isCancelled();
     }
 
+    /**
+     * Stops a listener handed to the main thread from being called once the
+     * async event thread gave up on it. If the main thread already started
+     * calling the listener, waits for it to return so that it never runs
+     * concurrently with the remaining listeners or after the event was
+     * completed.
+     *
+     * @param future The future of the scheduled listener call
+     */
+    private static void abandon(ListenableFuture<?> future) {
+        if (!future.cancel(false)) {
+            try {
+                Uninterruptibles.getUninterruptibly(future);
+            } catch (ExecutionException ignored) {
+                // Already logged by post
+            }
+        }
+    }
+
     @Override
     public boolean post(Event event) {
         return post(event, getHandlerCache(event).getListeners());
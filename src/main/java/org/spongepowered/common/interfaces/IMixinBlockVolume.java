@@ -0,0 +1,59 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.interfaces;
+
+import com.flowpowered.math.vector.Vector3i;
+
+/**
+ * Bulk block access for extents backed by chunk storage. The arrays use the
+ * layout of the short array block buffers: x major, then z, then y, each
+ * entry being a block state id.
+ */
+public interface IMixinBlockVolume {
+
+    /**
+     * Copies the block state ids of the region into the buffer.
+     *
+     * @param min The minimum block of the region
+     * @param max The maximum block of the region
+     * @param buffer The buffer to copy into
+     * @param bufferMin The position of the first block of the buffer
+     * @param bufferSize The size of the buffer
+     */
+    void copyBlocksTo(Vector3i min, Vector3i max, short[] buffer, Vector3i bufferMin, Vector3i bufferSize);
+
+    /**
+     * Sets the blocks of the region from the block state ids of the buffer.
+     * Only the blocks that differ from the current ones are set.
+     *
+     * @param min The minimum block of the region
+     * @param max The maximum block of the region
+     * @param buffer The buffer to copy from
+     * @param bufferMin The position of the first block of the buffer
+     * @param bufferSize The size of the buffer
+     */
+    void copyBlocksFrom(Vector3i min, Vector3i max, short[] buffer, Vector3i bufferMin, Vector3i bufferSize);
+
+}
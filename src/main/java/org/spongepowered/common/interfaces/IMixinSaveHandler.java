@@ -27,7 +27,23 @@
 import net.minecraft.world.storage.WorldInfo;
 
 import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
 
 public interface IMixinSaveHandler {
     void loadSpongeDatData(WorldInfo info) throws IOException;
+
+    /**
+     * Gets the unique ids of all players that have a data file in this
+     * save's players directory. The directory is only listed once, after
+     * which the index is kept up to date as player data is written and
+     * deleted.
+     *
+     * @return An unmodifiable view of the indexed unique ids
+     */
+    Set<UUID> getPlayerDataIds();
+
+    boolean hasPlayerData(UUID uniqueId);
+
+    boolean deletePlayerData(UUID uniqueId);
 }
@@ -24,15 +24,52 @@
  */
 package org.spongepowered.common.interfaces;
 
+import com.flowpowered.math.vector.Vector3d;
+import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
+import org.spongepowered.api.entity.Entity;
 import org.spongepowered.api.world.gen.GeneratorPopulator;
 import org.spongepowered.api.world.gen.Populator;
 import org.spongepowered.common.configuration.SpongeConfig;
+import org.spongepowered.common.configuration.WorldConfigSnapshot;
 
-public interface IMixinWorld {
+import java.util.List;
+
+public interface IMixinWorld extends IMixinBlockVolume {
 
     SpongeConfig<SpongeConfig.WorldConfig> getWorldConfig();
 
+    /**
+     * Gets a snapshot of the hot path settings of the config active for
+     * this world, which is a world, dimension or the global config.
+     *
+     * @return The snapshot
+     */
+    WorldConfigSnapshot getActiveConfigSnapshot();
+
+    /**
+     * Gets the entities whose position lies within the given box, bounds
+     * inclusive. Only the entity lists of the loaded chunks overlapping the
+     * box are visited, unloaded chunks are never loaded.
+     *
+     * @param min The minimum corner of the box
+     * @param max The maximum corner of the box
+     * @param filter The filter applied to the entities within the box
+     * @return A new list of the matching entities
+     */
+    List<Entity> getEntitiesWithinBox(Vector3d min, Vector3d max, Predicate<Entity> filter);
+
+    /**
+     * Gets the entities whose position lies within the given sphere, with
+     * the same chunk narrowing as {@link #getEntitiesWithinBox}.
+     *
+     * @param center The center of the sphere
+     * @param radius The radius of the sphere
+     * @param filter The filter applied to the entities within the sphere
+     * @return A new list of the matching entities
+     */
+    List<Entity> getEntitiesWithinSphere(Vector3d center, double radius, Predicate<Entity> filter);
+
     ImmutableList<Populator> getPopulators();
 
     ImmutableList<GeneratorPopulator> getGeneratorPopulators();
@@ -32,6 +32,7 @@
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.BlockStateBase;
 import org.spongepowered.api.block.BlockSnapshot;
@@ -57,12 +58,15 @@
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nullable;
 
 @Mixin(net.minecraft.block.state.BlockState.StateImplementation.class)
 public abstract class MixinBlockState extends BlockStateBase implements BlockState {
 
+    private static final int MAX_TRANSITIONS_PER_KEY = 64;
+
     @Shadow
     @SuppressWarnings("rawtypes")
     private ImmutableMap properties;
@@ -72,6 +76,10 @@ public abstract class MixinBlockState extends BlockStateBase implements BlockSta
     @Nullable private ImmutableSet<Key<?>> keys;
     @Nullable private ImmutableList<ImmutableDataManipulator<?, ?>> manipulators;
     @Nullable private ImmutableMap<Key<?>, Object> keyMap;
+    // The successful results of with(key, value), states are immutable so
+    // they never change once resolved. Invalid values are not cached, and
+    // each key caches at most MAX_TRANSITIONS_PER_KEY values.
+    @Nullable private volatile ConcurrentMap<Key<?>, ConcurrentMap<Object, BlockState>> transitions;
 
     @Override
     public BlockType getType() {
@@ -139,16 +147,42 @@ public <E> Optional<BlockState> transform(Key<? extends BaseValue<E>> key, Funct
         } else {
             E current = this.get(key).get();
             final E newVal = checkNotNull(function.apply(current));
-            Optional<BlockValueProcessor<E, ?>> optional = SpongeDataRegistry.getInstance().getBaseBlockValueProcessor(key);
-            if (optional.isPresent()) {
-                return optional.get().offerValue(this, newVal);
-            }
+            return with(key, newVal);
         }
-        return Optional.absent();
     }
 
     @Override
     public <E> Optional<BlockState> with(Key<? extends BaseValue<E>> key, E value) {
+        ConcurrentMap<Key<?>, ConcurrentMap<Object, BlockState>> transitions = this.transitions;
+        if (transitions == null) {
+            // Racing threads may each create a map, the entries of the losing
+            // one are simply resolved again
+            transitions = this.transitions = Maps.newConcurrentMap();
+        }
+        ConcurrentMap<Object, BlockState> table = transitions.get(checkNotNull(key));
+        if (table != null) {
+            final BlockState state = table.get(checkNotNull(value));
+            if (state != null) {
+                return Optional.of(state);
+            }
+        }
+        final Optional<BlockState> state = resolveWith(key, value);
+        if (state.isPresent()) {
+            if (table == null) {
+                table = Maps.newConcurrentMap();
+                final ConcurrentMap<Object, BlockState> existing = transitions.putIfAbsent(key, table);
+                if (existing != null) {
+                    table = existing;
+                }
+            }
+            if (table.size() < MAX_TRANSITIONS_PER_KEY) {
+                table.put(value, state.get());
+            }
+        }
+        return state;
+    }
+
+    private <E> Optional<BlockState> resolveWith(Key<? extends BaseValue<E>> key, E value) {
         if (!supports(key)) {
             return Optional.absent();
         }
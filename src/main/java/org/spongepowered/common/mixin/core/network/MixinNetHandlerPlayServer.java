@@ -79,6 +79,7 @@
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
 import org.spongepowered.common.Sponge;
+import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.event.SpongeImplEventFactory;
 import org.spongepowered.common.interfaces.IMixinNetworkManager;
 import org.spongepowered.common.text.SpongeTexts;
@@ -155,6 +156,12 @@ public void callSignChangeEvent(C12PacketUpdateSign packetIn, CallbackInfo ci, W
             lines.set(i, SpongeTexts.toText(packetIn.getLines()[i]));
         }
         changedSignData.set(lines);
+        if (!((SpongeEventManager) Sponge.getGame().getEventManager()).hasListeners(ChangeSignEvent.class)) {
+            ((Sign) tileentitysign).offer(changedSignData);
+            tileentitysign.markDirty();
+            worldserver.markBlockForUpdate(blockpos);
+            return;
+        }
         // I pass changedSignData in here twice to emulate the fact that even-though the current sign data doesn't have the lines from the packet
         // applied, this is what it "is" right now. If the data shown in the world is desired, it can be fetched from Sign.getData
         final ChangeSignEvent event =
@@ -267,6 +274,14 @@ public void setPlayerLocation(double x, double y, double z, float yaw, float pit
     @Inject(method = "processPlayer", at = @At(value = "FIELD", target = "net.minecraft.network.NetHandlerPlayServer.hasMoved:Z", ordinal = 2), cancellable = true)
     public void proccesPlayerMoved(C03PacketPlayer packetIn, CallbackInfo ci){
         if (packetIn.isMoving() || packetIn.getRotating() && !this.playerEntity.isDead) {
+            if (!((SpongeEventManager) Sponge.getGame().getEventManager()).hasListeners(DisplaceEntityEvent.TargetPlayer.class)) {
+                // Nothing is listening, don't build locations and transforms for every movement packet.
+                // Forget the last location so the next event (if a listener is registered) starts from the current one.
+                this.lastMoveLocation = null;
+                this.justTeleported = false;
+                return;
+            }
+
             Player player = (Player) this.playerEntity;
             Vector3d fromrot = player.getRotation();
 
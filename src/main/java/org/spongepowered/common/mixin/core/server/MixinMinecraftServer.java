@@ -26,6 +26,7 @@
 
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import net.minecraft.command.ICommandSender;
 import net.minecraft.profiler.Profiler;
 import net.minecraft.server.MinecraftServer;
@@ -77,6 +78,7 @@
 import org.spongepowered.common.interfaces.IMixinWorldSettings;
 import org.spongepowered.common.text.sink.SpongeMessageSinkFactory;
 import org.spongepowered.common.world.DimensionManager;
+import org.spongepowered.common.world.SpawnAreaPrefetcher;
 import org.spongepowered.common.world.SpongeDimensionType;
 import org.spongepowered.common.world.storage.SpongeChunkLayout;
 
@@ -362,11 +364,27 @@ protected void loadAllWorlds(String overworldFolder, String unused, long seed, W
 
     @Overwrite
     protected void initialWorldChunkLoad() {
+        List<WorldServer> worlds = Lists.newArrayList();
         for (WorldServer worldserver : DimensionManager.getWorlds()) {
             WorldProperties worldProperties = ((World) worldserver).getProperties();
             if (worldProperties.doesKeepSpawnLoaded()) {
+                worlds.add(worldserver);
+            }
+        }
+
+        SpawnAreaPrefetcher prefetcher = null;
+        if (worlds.size() > 0 && Sponge.getGlobalConfig().getConfig().getGeneral().isPrefetchSpawnChunks()) {
+            logger.info("Warming up the disk cache for the spawn chunks of " + worlds.size() + " worlds in the background");
+            prefetcher = SpawnAreaPrefetcher.start(worlds);
+        }
+        try {
+            for (WorldServer worldserver : worlds) {
                 prepareSpawnArea(worldserver);
             }
+        } finally {
+            if (prefetcher != null) {
+                prefetcher.stop();
+            }
         }
 
         this.clearCurrentTask();
@@ -377,10 +395,11 @@ protected void prepareSpawnArea(WorldServer world) {
         this.setUserMessage("menu.generatingTerrain");
         logger.info("Preparing start region for level " + world.provider.getDimensionId());
         BlockPos blockpos = world.getSpawnPoint();
-        long j = MinecraftServer.getCurrentTimeMillis();
+        long start = MinecraftServer.getCurrentTimeMillis();
+        long j = start;
 
-        for (int k = -192; k <= 192 && this.isServerRunning(); k += 16) {
-            for (int l = -192; l <= 192 && this.isServerRunning(); l += 16) {
+        for (int k = -SpawnAreaPrefetcher.SPAWN_RADIUS; k <= SpawnAreaPrefetcher.SPAWN_RADIUS && this.isServerRunning(); k += 16) {
+            for (int l = -SpawnAreaPrefetcher.SPAWN_RADIUS; l <= SpawnAreaPrefetcher.SPAWN_RADIUS && this.isServerRunning(); l += 16) {
                 long i1 = MinecraftServer.getCurrentTimeMillis();
 
                 if (i1 - j > 1000L) {
@@ -393,6 +412,8 @@ protected void prepareSpawnArea(WorldServer world) {
             }
         }
 
+        logger.info("Prepared start region for level " + world.provider.getDimensionId() + " (" + ((World) world).getName() + ") in "
+                + (MinecraftServer.getCurrentTimeMillis() - start) + " ms");
         this.clearCurrentTask();
     }
 
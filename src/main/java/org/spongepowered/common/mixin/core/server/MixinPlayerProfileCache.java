@@ -0,0 +1,90 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.core.server;
+
+import com.google.common.collect.Lists;
+import com.mojang.authlib.GameProfile;
+import net.minecraft.server.management.PlayerProfileCache;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.interfaces.IMixinPlayerProfileCache;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@Mixin(PlayerProfileCache.class)
+public abstract class MixinPlayerProfileCache implements IMixinPlayerProfileCache {
+
+    @Shadow private Map<String, ?> usernameToProfileEntryMap;
+
+    // Sorted copy of the cached names, so prefix matches are a range lookup.
+    // Entries vanilla drops on expiry are skipped when reading and pruned.
+    private final NavigableMap<String, GameProfile> profilesByName = new ConcurrentSkipListMap<String, GameProfile>();
+    private final Map<UUID, String> namesById = new ConcurrentHashMap<UUID, String>();
+
+    @Inject(method = "addEntry(Lcom/mojang/authlib/GameProfile;Ljava/util/Date;)V", at = @At("RETURN"))
+    public void onAddEntry(GameProfile profile, Date expirationDate, CallbackInfo ci) {
+        String name = profile.getName().toLowerCase(Locale.ROOT);
+        String previous = this.namesById.put(profile.getId(), name);
+        if (previous != null && !previous.equals(name)) {
+            this.profilesByName.remove(previous);
+        }
+        this.profilesByName.put(name, profile);
+    }
+
+    @Override
+    public List<GameProfile> getProfiles() {
+        return collect(this.profilesByName);
+    }
+
+    @Override
+    public List<GameProfile> getProfilesByPrefix(String prefix) {
+        prefix = prefix.toLowerCase(Locale.ROOT);
+        return collect(this.profilesByName.subMap(prefix, true, prefix + Character.MAX_VALUE, false));
+    }
+
+    private List<GameProfile> collect(Map<String, GameProfile> profiles) {
+        List<GameProfile> result = Lists.newArrayList();
+        for (Map.Entry<String, GameProfile> entry : profiles.entrySet()) {
+            if (this.usernameToProfileEntryMap.containsKey(entry.getKey())) {
+                result.add(entry.getValue());
+            } else {
+                this.profilesByName.remove(entry.getKey(), entry.getValue());
+                this.namesById.remove(entry.getValue().getId(), entry.getKey());
+            }
+        }
+        return result;
+    }
+
+}
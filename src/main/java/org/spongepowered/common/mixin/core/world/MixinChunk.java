@@ -51,15 +51,17 @@
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.interfaces.IMixinBlockVolume;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.util.VecHelper;
+import org.spongepowered.common.world.extent.ExtentBufferUtil;
 import org.spongepowered.common.world.extent.ExtentViewDownsize;
 import org.spongepowered.common.world.extent.ExtentViewTransform;
 import org.spongepowered.common.world.storage.SpongeChunkLayout;
 
 @NonnullByDefault
 @Mixin(net.minecraft.world.chunk.Chunk.class)
-public abstract class MixinChunk implements Chunk {
+public abstract class MixinChunk implements Chunk, IMixinBlockVolume {
 
     private static final Vector2i BIOME_SIZE = SpongeChunkLayout.CHUNK_SIZE.toVector2(true);
     private Vector3i chunkPos;
@@ -190,6 +192,20 @@ public BlockType getBlockType(int x, int y, int z) {
         return (BlockType) shadow$getBlock(x, y, z);
     }
 
+    @Override
+    public void copyBlocksTo(Vector3i min, Vector3i max, short[] buffer, Vector3i bufferMin, Vector3i bufferSize) {
+        checkBlockBounds(min.getX(), min.getY(), min.getZ());
+        checkBlockBounds(max.getX(), max.getY(), max.getZ());
+        ExtentBufferUtil.copyChunkToArray((net.minecraft.world.chunk.Chunk) (Object) this, min, max, buffer, bufferMin, bufferSize);
+    }
+
+    @Override
+    public void copyBlocksFrom(Vector3i min, Vector3i max, short[] buffer, Vector3i bufferMin, Vector3i bufferSize) {
+        checkBlockBounds(min.getX(), min.getY(), min.getZ());
+        checkBlockBounds(max.getX(), max.getY(), max.getZ());
+        ExtentBufferUtil.copyArrayToChunk((net.minecraft.world.chunk.Chunk) (Object) this, null, min, max, buffer, bufferMin, bufferSize);
+    }
+
     @Override
     public Vector2i getBiomeMin() {
         return this.biomeMin;
@@ -57,7 +57,9 @@
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.management.ServerConfigurationManager;
 import net.minecraft.util.BlockPos;
+import net.minecraft.util.ClassInheritanceMultiMap;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.util.MathHelper;
 import net.minecraft.world.EnumDifficulty;
 import net.minecraft.world.EnumSkyBlock;
 import net.minecraft.world.IBlockAccess;
@@ -122,6 +124,7 @@
 import org.spongepowered.common.Sponge;
 import org.spongepowered.common.block.SpongeBlockSnapshot;
 import org.spongepowered.common.configuration.SpongeConfig;
+import org.spongepowered.common.configuration.WorldConfigSnapshot;
 import org.spongepowered.common.effect.particle.SpongeParticleEffect;
 import org.spongepowered.common.effect.particle.SpongeParticleHelper;
 import org.spongepowered.common.interfaces.IMixinWorld;
@@ -134,6 +137,7 @@
 import org.spongepowered.common.util.VecHelper;
 import org.spongepowered.common.world.DimensionManager;
 import org.spongepowered.common.world.border.PlayerBorderListener;
+import org.spongepowered.common.world.extent.ExtentBufferUtil;
 import org.spongepowered.common.world.extent.ExtentViewDownsize;
 import org.spongepowered.common.world.extent.ExtentViewTransform;
 import org.spongepowered.common.world.gen.CustomChunkProviderGenerate;
@@ -163,8 +167,10 @@ public abstract class MixinWorld implements World, IMixinWorld {
     private static final Vector2i BIOME_MIN = BLOCK_MIN.toVector2(true);
     private static final Vector2i BIOME_MAX = BLOCK_MAX.toVector2(true);
     private static final Vector2i BIOME_SIZE = BIOME_MAX.sub(BIOME_MIN).add(1, 1);
+    private static final double ENTITY_CHUNK_MARGIN = 2.0D;
     private boolean keepSpawnLoaded;
     public SpongeConfig<SpongeConfig.WorldConfig> worldConfig;
+    @Nullable private volatile WorldConfigSnapshot activeConfigSnapshot;
     @Nullable private volatile Context worldContext;
     private ImmutableList<Populator> populators;
     private ImmutableList<GeneratorPopulator> generatorPopulators;
@@ -320,6 +326,35 @@ public void setBlock(int x, int y, int z, BlockState block) {
         SpongeHooks.setBlockState(((net.minecraft.world.World) (Object) this), x, y, z, block);
     }
 
+    @Override
+    public void copyBlocksTo(Vector3i min, Vector3i max, short[] buffer, Vector3i bufferMin, Vector3i bufferSize) {
+        copyBlocks(min, max, buffer, bufferMin, bufferSize, false);
+    }
+
+    @Override
+    public void copyBlocksFrom(Vector3i min, Vector3i max, short[] buffer, Vector3i bufferMin, Vector3i bufferSize) {
+        copyBlocks(min, max, buffer, bufferMin, bufferSize, true);
+    }
+
+    private void copyBlocks(Vector3i min, Vector3i max, short[] buffer, Vector3i bufferMin, Vector3i bufferSize, boolean fromBuffer) {
+        checkBlockBounds(min.getX(), min.getY(), min.getZ());
+        checkBlockBounds(max.getX(), max.getY(), max.getZ());
+        for (int chunkX = min.getX() >> 4; chunkX <= max.getX() >> 4; chunkX++) {
+            for (int chunkZ = min.getZ() >> 4; chunkZ <= max.getZ() >> 4; chunkZ++) {
+                final net.minecraft.world.chunk.Chunk chunk = getChunkFromChunkCoords(chunkX, chunkZ);
+                final Vector3i chunkMin = new Vector3i(Math.max(min.getX(), chunkX << 4), min.getY(), Math.max(min.getZ(), chunkZ << 4));
+                final Vector3i chunkMax =
+                    new Vector3i(Math.min(max.getX(), (chunkX << 4) + 15), max.getY(), Math.min(max.getZ(), (chunkZ << 4) + 15));
+                if (fromBuffer) {
+                    ExtentBufferUtil.copyArrayToChunk(chunk, (net.minecraft.world.World) (Object) this, chunkMin, chunkMax, buffer, bufferMin,
+                        bufferSize);
+                } else {
+                    ExtentBufferUtil.copyChunkToArray(chunk, chunkMin, chunkMax, buffer, bufferMin, bufferSize);
+                }
+            }
+        }
+    }
+
     @Override
     public BiomeType getBiome(int x, int z) {
         checkBiomeBounds(x, z);
@@ -550,6 +585,73 @@ public SpongeConfig<SpongeConfig.WorldConfig> getWorldConfig() {
         return this.worldConfig;
     }
 
+    @Override
+    public WorldConfigSnapshot getActiveConfigSnapshot() {
+        WorldConfigSnapshot snapshot = this.activeConfigSnapshot;
+        if (snapshot == null || snapshot.isStale()) {
+            snapshot = new WorldConfigSnapshot(SpongeHooks.getActiveConfig((net.minecraft.world.World) (Object) this));
+            this.activeConfigSnapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+    @Override
+    public List<Entity> getEntitiesWithinBox(Vector3d min, Vector3d max, Predicate<Entity> filter) {
+        checkNotNull(filter, "filter");
+        final double minX = Math.min(min.getX(), max.getX());
+        final double minY = Math.min(min.getY(), max.getY());
+        final double minZ = Math.min(min.getZ(), max.getZ());
+        final double maxX = Math.max(min.getX(), max.getX());
+        final double maxY = Math.max(min.getY(), max.getY());
+        final double maxZ = Math.max(min.getZ(), max.getZ());
+        final List<Entity> entities = Lists.newArrayList();
+        // Entities are re-bucketed once per tick, widen by the same margin as vanilla's box queries
+        final int minChunkX = MathHelper.floor_double((minX - ENTITY_CHUNK_MARGIN) / 16);
+        final int maxChunkX = MathHelper.floor_double((maxX + ENTITY_CHUNK_MARGIN) / 16);
+        final int minChunkZ = MathHelper.floor_double((minZ - ENTITY_CHUNK_MARGIN) / 16);
+        final int maxChunkZ = MathHelper.floor_double((maxZ + ENTITY_CHUNK_MARGIN) / 16);
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                if (!this.isChunkLoaded(chunkX, chunkZ, true)) {
+                    continue;
+                }
+                final ClassInheritanceMultiMap[] sections = this.getChunkFromChunkCoords(chunkX, chunkZ).getEntityLists();
+                final int minSection = MathHelper.clamp_int(MathHelper.floor_double((minY - ENTITY_CHUNK_MARGIN) / 16), 0, sections.length - 1);
+                final int maxSection = MathHelper.clamp_int(MathHelper.floor_double((maxY + ENTITY_CHUNK_MARGIN) / 16), 0, sections.length - 1);
+                for (int section = minSection; section <= maxSection; section++) {
+                    for (Object object : sections[section]) {
+                        final net.minecraft.entity.Entity entity = (net.minecraft.entity.Entity) object;
+                        if (entity.posX >= minX && entity.posX <= maxX && entity.posY >= minY && entity.posY <= maxY
+                                && entity.posZ >= minZ && entity.posZ <= maxZ && filter.apply((Entity) entity)) {
+                            entities.add((Entity) entity);
+                        }
+                    }
+                }
+            }
+        }
+        return entities;
+    }
+
+    @Override
+    public List<Entity> getEntitiesWithinSphere(final Vector3d center, double radius, Predicate<Entity> filter) {
+        checkNotNull(center, "center");
+        checkArgument(radius >= 0, "radius must not be negative");
+        final double radiusSquared = radius * radius;
+        final Vector3d extent = new Vector3d(radius, radius, radius);
+        return getEntitiesWithinBox(center.sub(extent), center.add(extent), Predicates.and(new Predicate<Entity>() {
+
+            @Override
+            public boolean apply(Entity input) {
+                final net.minecraft.entity.Entity entity = (net.minecraft.entity.Entity) input;
+                final double dx = entity.posX - center.getX();
+                final double dy = entity.posY - center.getY();
+                final double dz = entity.posZ - center.getZ();
+                return dx * dx + dy * dy + dz * dz <= radiusSquared;
+            }
+
+        }, filter));
+    }
+
     @Override
     public void playSound(SoundType sound, Vector3d position, double volume) {
         this.playSound(sound, position, volume, 1);
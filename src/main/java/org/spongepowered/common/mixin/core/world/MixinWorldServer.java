@@ -25,6 +25,7 @@
 package org.spongepowered.common.mixin.core.world;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.scoreboard.ScoreboardSaveData;
 import net.minecraft.util.BlockPos;
@@ -51,7 +52,11 @@
 import org.spongepowered.common.interfaces.IMixinScoreboardSaveData;
 import org.spongepowered.common.interfaces.IMixinWorld;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -62,6 +67,13 @@ public abstract class MixinWorldServer extends MixinWorld {
     @Shadow private Set<NextTickListEntry> pendingTickListEntriesHashSet;
     @Shadow private TreeSet<NextTickListEntry> pendingTickListEntriesTreeSet;
 
+    /**
+     * Secondary index of {@link #pendingTickListEntriesTreeSet} keyed by
+     * {@link BlockPos#toLong()}, so updates can be looked up by position
+     * without walking every pending update in the world.
+     */
+    private final Map<Long, List<NextTickListEntry>> pendingTickListEntriesByPosition = Maps.newHashMap();
+
     @Inject(method = "createSpawnPosition(Lnet/minecraft/world/WorldSettings;)V", at = @At("HEAD"), cancellable = true)
     public void onCreateSpawnPosition(WorldSettings settings, CallbackInfo ci) {
         GeneratorType generatorType = (GeneratorType) settings.getTerrainType();
@@ -95,12 +107,13 @@ public void onPostInit(CallbackInfoReturnable<World> ci) {
 
     @Override
     public Collection<ScheduledBlockUpdate> getScheduledUpdates(int x, int y, int z) {
-        BlockPos position = new BlockPos(x, y, z);
+        List<NextTickListEntry> entries = this.pendingTickListEntriesByPosition.get(new BlockPos(x, y, z).toLong());
+        if (entries == null) {
+            return Collections.emptyList();
+        }
         ImmutableList.Builder<ScheduledBlockUpdate> builder = ImmutableList.builder();
-        for (NextTickListEntry sbu : this.pendingTickListEntriesTreeSet) {
-            if (sbu.position.equals(position)) {
-                builder.add((ScheduledBlockUpdate) sbu);
-            }
+        for (NextTickListEntry sbu : entries) {
+            builder.add((ScheduledBlockUpdate) sbu);
         }
         return builder.build();
     }
@@ -121,6 +134,42 @@ private void onCreateScheduledBlockUpdate(NextTickListEntry sbu, int priority) {
         this.tmpScheduledObj = sbu;
     }
 
+    @Redirect(method = {"scheduleBlockUpdate(Lnet/minecraft/util/BlockPos;Lnet/minecraft/block/Block;II)V",
+            "updateBlockTick(Lnet/minecraft/util/BlockPos;Lnet/minecraft/block/Block;II)V"},
+            at = @At(value = "INVOKE", target = "Ljava/util/TreeSet;add(Ljava/lang/Object;)Z"))
+    private boolean onAddScheduledBlockUpdate(TreeSet<NextTickListEntry> treeSet, Object entry) {
+        if (!treeSet.add((NextTickListEntry) entry)) {
+            return false;
+        }
+        NextTickListEntry sbu = (NextTickListEntry) entry;
+        Long key = sbu.position.toLong();
+        List<NextTickListEntry> entries = this.pendingTickListEntriesByPosition.get(key);
+        if (entries == null) {
+            entries = new ArrayList<NextTickListEntry>(1);
+            this.pendingTickListEntriesByPosition.put(key, entries);
+        }
+        entries.add(sbu);
+        return true;
+    }
+
+    @Redirect(method = {"tickUpdates(Z)Z", "func_175712_a"},
+            at = @At(value = "INVOKE", target = "Ljava/util/Set;remove(Ljava/lang/Object;)Z"))
+    private boolean onRemoveScheduledBlockUpdate(Set<NextTickListEntry> hashSet, Object entry) {
+        if (!hashSet.remove(entry)) {
+            return false;
+        }
+        removeIndexedUpdate((NextTickListEntry) entry);
+        return true;
+    }
+
+    private void removeIndexedUpdate(NextTickListEntry sbu) {
+        Long key = sbu.position.toLong();
+        List<NextTickListEntry> entries = this.pendingTickListEntriesByPosition.get(key);
+        if (entries != null && entries.remove(sbu) && entries.isEmpty()) {
+            this.pendingTickListEntriesByPosition.remove(key);
+        }
+    }
+
     @Override
     public ScheduledBlockUpdate addScheduledUpdate(int x, int y, int z, int priority, int ticks) {
         BlockPos pos = new BlockPos(x, y, z);
@@ -133,8 +182,11 @@ public ScheduledBlockUpdate addScheduledUpdate(int x, int y, int z, int priority
     @Override
     public void removeScheduledUpdate(int x, int y, int z, ScheduledBlockUpdate update) {
         // Note: Ignores position argument
-        this.pendingTickListEntriesHashSet.remove(update);
-        this.pendingTickListEntriesTreeSet.remove(update);
+        NextTickListEntry sbu = (NextTickListEntry) update;
+        if (this.pendingTickListEntriesHashSet.remove(sbu)) {
+            this.pendingTickListEntriesTreeSet.remove(sbu);
+            removeIndexedUpdate(sbu);
+        }
     }
 
     @Redirect(method = "updateAllPlayersSleepingFlag()V", at = @At(value = "INVOKE",
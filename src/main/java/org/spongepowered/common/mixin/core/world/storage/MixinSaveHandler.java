@@ -24,6 +24,8 @@
  */
 package org.spongepowered.common.mixin.core.world.storage;
 
+import com.google.common.collect.Sets;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.world.storage.SaveHandler;
@@ -45,6 +47,10 @@
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @NonnullByDefault
 @Mixin(net.minecraft.world.storage.SaveHandler.class)
@@ -52,6 +58,11 @@ public abstract class MixinSaveHandler implements IMixinSaveHandler {
 
     @Shadow private File worldDirectory;
     @Shadow private long initializationTime;
+    @Shadow private File playersDirectory;
+
+    @Shadow public abstract String[] getAvailablePlayerDat();
+
+    private volatile Set<UUID> playerDataIds;
 
     @ModifyArg(method = "checkSessionLock", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/MinecraftException;<init>(Ljava/lang/String;)V"
             , ordinal = 0, remap = false))
@@ -87,6 +98,54 @@ public void onSaveWorldInfoEnd(WorldInfo worldInformation, CallbackInfo ci) {
         saveSpongeDatData(worldInformation);
     }
 
+    @Inject(method = "writePlayerData", at = @At("RETURN"))
+    public void onWritePlayerData(EntityPlayer player, CallbackInfo ci) {
+        if (this.playerDataIds != null) {
+            this.playerDataIds.add(player.getUniqueID());
+        }
+    }
+
+    @Override
+    public Set<UUID> getPlayerDataIds() {
+        return Collections.unmodifiableSet(getPlayerDataIndex());
+    }
+
+    @Override
+    public boolean hasPlayerData(UUID uniqueId) {
+        return getPlayerDataIndex().contains(uniqueId);
+    }
+
+    @Override
+    public boolean deletePlayerData(UUID uniqueId) {
+        File dataFile = new File(this.playersDirectory, uniqueId + ".dat");
+        if (dataFile.exists() && !dataFile.delete()) {
+            return false;
+        }
+        getPlayerDataIndex().remove(uniqueId);
+        return true;
+    }
+
+    private Set<UUID> getPlayerDataIndex() {
+        Set<UUID> index = this.playerDataIds;
+        if (index == null) {
+            synchronized (this) {
+                index = this.playerDataIds;
+                if (index == null) {
+                    index = Sets.newSetFromMap(new ConcurrentHashMap<UUID, Boolean>());
+                    for (String name : getAvailablePlayerDat()) {
+                        try {
+                            index.add(UUID.fromString(name));
+                        } catch (IllegalArgumentException e) {
+                            // Not a player data file
+                        }
+                    }
+                    this.playerDataIds = index;
+                }
+            }
+        }
+        return index;
+    }
+
     @Override
     public void loadSpongeDatData(WorldInfo info) throws IOException {
         final File spongeFile = new File(this.worldDirectory, "level_sponge.dat");
@@ -0,0 +1,257 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.plugin.entityactivation;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityCreature;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.IProjectile;
+import net.minecraft.entity.boss.EntityDragon;
+import net.minecraft.entity.boss.EntityWither;
+import net.minecraft.entity.effect.EntityWeatherEffect;
+import net.minecraft.entity.item.EntityEnderCrystal;
+import net.minecraft.entity.item.EntityFallingBlock;
+import net.minecraft.entity.item.EntityFireworkRocket;
+import net.minecraft.entity.item.EntityTNTPrimed;
+import net.minecraft.entity.monster.IMob;
+import net.minecraft.entity.passive.EntityAmbientCreature;
+import net.minecraft.entity.passive.EntityAnimal;
+import net.minecraft.entity.passive.EntityWaterMob;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.projectile.EntityFireball;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.AxisAlignedBB;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import org.spongepowered.common.configuration.SpongeConfig;
+import org.spongepowered.common.interfaces.IMixinEntity;
+import org.spongepowered.common.util.SpongeHooks;
+
+/**
+ * Decides which entities are close enough to a player to be ticked. Entities
+ * outside the activation range of their type only tick once every
+ * {@link #INACTIVE_TICK_INTERVAL} ticks, unless something keeps them awake.
+ */
+public final class EntityActivationRange {
+
+    public static final byte ACTIVATION_TYPE_MONSTER = 1;
+    public static final byte ACTIVATION_TYPE_CREATURE = 2;
+    public static final byte ACTIVATION_TYPE_AQUATIC = 3;
+    public static final byte ACTIVATION_TYPE_AMBIENT = 4;
+    public static final byte ACTIVATION_TYPE_MISC = 5;
+
+    // How often inactive entities are ticked and checked for immunities
+    public static final int INACTIVE_TICK_INTERVAL = 20;
+
+    private EntityActivationRange() {
+    }
+
+    /**
+     * Gets the activation type of an entity, which selects its activation
+     * range.
+     *
+     * @param entity The entity
+     * @return The activation type
+     */
+    public static byte initializeEntityActivationType(Entity entity) {
+        if (entity instanceof IMob) {
+            return ACTIVATION_TYPE_MONSTER;
+        } else if (entity instanceof EntityWaterMob) {
+            return ACTIVATION_TYPE_AQUATIC;
+        } else if (entity instanceof EntityAmbientCreature) {
+            return ACTIVATION_TYPE_AMBIENT;
+        } else if (entity instanceof EntityCreature) {
+            return ACTIVATION_TYPE_CREATURE;
+        }
+        return ACTIVATION_TYPE_MISC;
+    }
+
+    /**
+     * Checks if an entity should always tick, either because skipping its
+     * ticks is never safe or because its activation range is disabled.
+     *
+     * @param entity The entity
+     * @param activationType The activation type of the entity
+     * @return True if the entity is always active
+     */
+    public static boolean initializeEntityActivationState(Entity entity, byte activationType) {
+        if (entity.worldObj == null || entity.worldObj.isRemote) {
+            return true;
+        }
+        if (entity instanceof EntityPlayer || entity instanceof IProjectile || entity instanceof EntityFireball
+                || entity instanceof EntityDragon || entity instanceof EntityWither || entity instanceof EntityWeatherEffect
+                || entity instanceof EntityTNTPrimed || entity instanceof EntityFallingBlock || entity instanceof EntityEnderCrystal
+                || entity instanceof EntityFireworkRocket) {
+            return true;
+        }
+        return getActivationRange(getConfig(entity.worldObj), activationType) <= 0;
+    }
+
+    private static SpongeConfig.EntityActivationRangeCategory getConfig(World world) {
+        return SpongeHooks.getActiveConfig(world).getConfig().getEntityActivationRange();
+    }
+
+    private static int getActivationRange(SpongeConfig.EntityActivationRangeCategory config, byte activationType) {
+        switch (activationType) {
+            case ACTIVATION_TYPE_MONSTER:
+                return config.getMonsterActivationRange();
+            case ACTIVATION_TYPE_CREATURE:
+                return config.getCreatureActivationRange();
+            case ACTIVATION_TYPE_AQUATIC:
+                return config.getAquaticActivationRange();
+            case ACTIVATION_TYPE_AMBIENT:
+                return config.getAmbientActivationRange();
+            default:
+                return config.getMiscActivationRange();
+        }
+    }
+
+    /**
+     * Marks all entities within the activation range of a player as active
+     * for the current tick.
+     *
+     * @param world The world to activate entities in
+     */
+    @SuppressWarnings("unchecked")
+    public static void activateEntities(World world) {
+        final int currentTick = MinecraftServer.getServer().getTickCounter();
+        final SpongeConfig.EntityActivationRangeCategory config = getConfig(world);
+        final int[] ranges = new int[ACTIVATION_TYPE_MISC + 1];
+        int maxRange = 0;
+        for (byte type = ACTIVATION_TYPE_MONSTER; type <= ACTIVATION_TYPE_MISC; type++) {
+            ranges[type] = getActivationRange(config, type);
+            maxRange = Math.max(maxRange, ranges[type]);
+        }
+
+        final AxisAlignedBB[] boxes = new AxisAlignedBB[ranges.length];
+        for (EntityPlayer player : (Iterable<EntityPlayer>) world.playerEntities) {
+            ((IMixinEntity) player).setActivatedTick(currentTick);
+            final AxisAlignedBB playerBox = player.getEntityBoundingBox();
+            for (int type = ACTIVATION_TYPE_MONSTER; type < ranges.length; type++) {
+                boxes[type] = playerBox.expand(ranges[type], 256, ranges[type]);
+            }
+
+            final AxisAlignedBB maxBox = playerBox.expand(maxRange, 256, maxRange);
+            final int minChunkX = MathHelper.floor_double(maxBox.minX / 16);
+            final int maxChunkX = MathHelper.floor_double(maxBox.maxX / 16);
+            final int minChunkZ = MathHelper.floor_double(maxBox.minZ / 16);
+            final int maxChunkZ = MathHelper.floor_double(maxBox.maxZ / 16);
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                    if (world.getChunkProvider().chunkExists(chunkX, chunkZ)) {
+                        activateChunkEntities(world.getChunkFromChunkCoords(chunkX, chunkZ), boxes, currentTick);
+                    }
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void activateChunkEntities(Chunk chunk, AxisAlignedBB[] boxes, int currentTick) {
+        for (ClassInheritanceMultiMap entities : chunk.getEntityLists()) {
+            for (Entity entity : (Iterable<Entity>) entities) {
+                final IMixinEntity spongeEntity = (IMixinEntity) entity;
+                if (spongeEntity.getActivatedTick() >= currentTick || spongeEntity.getDefaultActivationState()) {
+                    continue;
+                }
+                if (boxes[spongeEntity.getActivationType()].intersectsWith(entity.getEntityBoundingBox())) {
+                    spongeEntity.setActivatedTick(currentTick);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if an entity is doing something which should keep it ticking
+     * even outside of the activation range.
+     *
+     * @param entity The entity
+     * @return True if the entity should stay active
+     */
+    public static boolean checkEntityImmunities(Entity entity) {
+        if (entity.inWater || entity.isBurning()) {
+            return true;
+        }
+        if (entity.riddenByEntity != null || entity.ridingEntity != null) {
+            return true;
+        }
+        if (entity instanceof EntityLivingBase) {
+            final EntityLivingBase living = (EntityLivingBase) entity;
+            if (living.hurtTime > 0 || !living.getActivePotionEffects().isEmpty()) {
+                return true;
+            }
+            if (entity instanceof EntityLiving && ((EntityLiving) entity).getAttackTarget() != null) {
+                return true;
+            }
+            if (entity instanceof EntityAnimal && ((EntityAnimal) entity).isInLove()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if an entity should be ticked in the current tick.
+     *
+     * @param entity The entity
+     * @return True if the entity should tick
+     */
+    public static boolean checkIfActive(Entity entity) {
+        // Entities not yet added to a chunk were never activated
+        if (!entity.addedToChunk) {
+            return true;
+        }
+        final IMixinEntity spongeEntity = (IMixinEntity) entity;
+        final long currentTick = MinecraftServer.getServer().getTickCounter();
+        if (spongeEntity.getActivatedTick() >= currentTick || spongeEntity.getDefaultActivationState()) {
+            return true;
+        }
+        if ((currentTick - spongeEntity.getActivatedTick() - 1) % INACTIVE_TICK_INTERVAL == 0) {
+            if (checkEntityImmunities(entity)) {
+                // Give the entity a full interval before checking again
+                spongeEntity.setActivatedTick(currentTick + INACTIVE_TICK_INTERVAL);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Wakes an entity up for at least one inactive tick interval, for example
+     * after it was damaged.
+     *
+     * @param entity The entity
+     */
+    public static void wakeUp(Entity entity) {
+        final long tick = MinecraftServer.getServer().getTickCounter() + INACTIVE_TICK_INTERVAL;
+        if (((IMixinEntity) entity).getActivatedTick() < tick) {
+            ((IMixinEntity) entity).setActivatedTick(tick);
+        }
+    }
+
+}
@@ -57,7 +57,7 @@ public boolean setPermission(Set<Context> contexts, String permission, Tristate
         if (!GLOBAL_CONTEXT.equals(contexts)) {
             return false;
         }
-        return super.setPermission(contexts, permission, value);
+        return invalidate(super.setPermission(contexts, permission, value));
     }
 
     @Override
@@ -65,7 +65,7 @@ public boolean clearPermissions(Set<Context> contexts) {
         if (!GLOBAL_CONTEXT.equals(contexts)) {
             return false;
         }
-        return super.clearPermissions(contexts);
+        return invalidate(super.clearPermissions(contexts));
     }
 
     @Override
@@ -73,7 +73,7 @@ public boolean addParent(Set<Context> contexts, Subject parent) {
         if (!GLOBAL_CONTEXT.equals(contexts)) {
             return false;
         }
-        return super.addParent(contexts, parent);
+        return invalidate(super.addParent(contexts, parent));
     }
 
     @Override
@@ -81,7 +81,7 @@ public boolean removeParent(Set<Context> contexts, Subject parent) {
         if (!GLOBAL_CONTEXT.equals(contexts)) {
             return false;
         }
-        return super.removeParent(contexts, parent);
+        return invalidate(super.removeParent(contexts, parent));
     }
 
     @Override
@@ -89,6 +89,31 @@ public boolean clearParents(Set<Context> contexts) {
         if (!GLOBAL_CONTEXT.equals(contexts)) {
             return false;
         }
-        return super.clearParents(contexts);
+        return invalidate(super.clearParents(contexts));
+    }
+
+    @Override
+    public boolean clearPermissions() {
+        return invalidate(super.clearPermissions());
+    }
+
+    @Override
+    public boolean clearParents() {
+        return invalidate(super.clearParents());
+    }
+
+    /**
+     * Discards resolved permission values if a change was made. By default
+     * the values of all subjects are discarded, as they may resolve through
+     * this data.
+     *
+     * @param changed Whether the subject data changed
+     * @return The given value
+     */
+    protected boolean invalidate(boolean changed) {
+        if (changed) {
+            SpongeSubject.invalidatePermissionCaches();
+        }
+        return changed;
     }
 }
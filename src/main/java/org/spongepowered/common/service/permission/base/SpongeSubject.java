@@ -24,6 +24,8 @@
  */
 package org.spongepowered.common.service.permission.base;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.spongepowered.api.service.permission.MemorySubjectData;
 import org.spongepowered.api.service.permission.Subject;
 import org.spongepowered.api.service.permission.SubjectData;
@@ -32,9 +34,32 @@
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class SpongeSubject implements Subject {
 
+    // Bumped whenever any subject data or the ops list changes. Permissions
+    // resolve through parents and defaults, so any change can affect any
+    // subject's resolved values.
+    private static final AtomicInteger cacheGeneration = new AtomicInteger();
+    private static final int MAX_CACHED_PERMISSIONS = 1024;
+
+    private volatile ResolvedPermissions resolvedPermissions;
+
+    /**
+     * Discards the resolved permission values of all subjects.
+     */
+    public static void invalidatePermissionCaches() {
+        cacheGeneration.incrementAndGet();
+    }
+
+    /**
+     * Discards the resolved permission values of this subject.
+     */
+    protected void invalidateResolvedPermissions() {
+        this.resolvedPermissions = null;
+    }
+
     @Override
     public SubjectData getTransientSubjectData() {
         return getSubjectData();
@@ -55,6 +80,22 @@ public boolean hasPermission(String permission) {
 
     @Override
     public Tristate getPermissionValue(Set<Context> contexts, String permission) {
+        // Resolution only uses the global context, so values are cached by permission alone
+        ResolvedPermissions resolved = this.resolvedPermissions;
+        int generation = cacheGeneration.get();
+        if (resolved == null || resolved.generation != generation) {
+            resolved = new ResolvedPermissions(generation);
+            this.resolvedPermissions = resolved;
+        }
+        Tristate value = resolved.values.getIfPresent(permission);
+        if (value == null) {
+            value = resolvePermissionValue(contexts, permission);
+            resolved.values.put(permission, value);
+        }
+        return value;
+    }
+
+    protected Tristate resolvePermissionValue(Set<Context> contexts, String permission) {
         return getDataPermissionValue(getSubjectData(), permission);
     }
 
@@ -97,4 +138,16 @@ public List<Subject> getParents(Set<Context> contexts) {
     public Set<Context> getActiveContexts() {
         return SubjectData.GLOBAL_CONTEXT;
     }
+
+    private static final class ResolvedPermissions {
+
+        final int generation;
+        // Plugins may check generated permission strings, so only the most
+        // recently used values are kept
+        final Cache<String, Tristate> values = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_PERMISSIONS).build();
+
+        ResolvedPermissions(int generation) {
+            this.generation = generation;
+        }
+    }
 }
@@ -0,0 +1,361 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.profile;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.SettableFuture;
+import com.mojang.authlib.Agent;
+import com.mojang.authlib.GameProfile;
+import com.mojang.authlib.GameProfileRepository;
+import com.mojang.authlib.ProfileLookupCallback;
+import com.mojang.authlib.minecraft.MinecraftSessionService;
+import org.spongepowered.api.service.profile.ProfileNotFoundException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+/**
+ * Caches the results of remote profile lookups, including name lookups that
+ * found nothing, and makes concurrent lookups of the same id or name share a
+ * single request.
+ *
+ * <p>Remote requests are rate limited. Names waiting for a request are
+ * queued and sent together, so lookups from many threads are coalesced into
+ * as few repository requests as possible.</p>
+ */
+class ProfileLookupCache {
+
+    private static final int MAX_NAME_BATCH = 100;
+    // The repository splits a batch into requests of at most this many
+    // names, each of which counts against the rate limit
+    static final int NAMES_PER_REQUEST = 2;
+
+    private final GameProfileRepository repository;
+    private final MinecraftSessionService sessionService;
+    @Nullable private final ProfileLookupCallback listener;
+    private final TokenBucket rateLimit;
+
+    private final Queue<Map.Entry<String, SettableFuture<GameProfile>>> queuedNames =
+            new ConcurrentLinkedQueue<Map.Entry<String, SettableFuture<GameProfile>>>();
+    private final Object nameBatchLock = new Object();
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong requestNanos = new AtomicLong();
+
+    private final Cache<UUID, GameProfile> byId;
+    private final Cache<String, GameProfile> byName;
+    private final Cache<Object, Boolean> misses;
+
+    private final ConcurrentMap<Object, SettableFuture<GameProfile>> pending = Maps.newConcurrentMap();
+
+    /**
+     * Creates a new lookup cache.
+     *
+     * @param repository The repository used to look up names
+     * @param sessionService The session service used to look up unique ids
+     * @param listener A callback notified of every remote lookup result
+     * @param rateLimit The limit on remote requests
+     * @param ttl How long found profiles are cached
+     * @param negativeTtl How long unknown names are cached
+     * @param unit The unit of both time to live values
+     */
+    ProfileLookupCache(GameProfileRepository repository, MinecraftSessionService sessionService, @Nullable ProfileLookupCallback listener,
+            TokenBucket rateLimit, long ttl, long negativeTtl, TimeUnit unit) {
+        this.repository = repository;
+        this.sessionService = sessionService;
+        this.listener = listener;
+        this.rateLimit = rateLimit;
+        this.byId = CacheBuilder.newBuilder().expireAfterWrite(ttl, unit).build();
+        this.byName = CacheBuilder.newBuilder().expireAfterWrite(ttl, unit).build();
+        this.misses = CacheBuilder.newBuilder().expireAfterWrite(negativeTtl, unit).build();
+    }
+
+    @Nullable
+    GameProfile getIfPresent(UUID uniqueId) {
+        return this.byId.getIfPresent(uniqueId);
+    }
+
+    @Nullable
+    GameProfile getIfPresent(String name) {
+        return this.byName.getIfPresent(name.toLowerCase(Locale.ROOT));
+    }
+
+    GameProfile getById(UUID uniqueId, boolean useCache) throws ProfileNotFoundException {
+        return getAllById(Lists.newArrayList(uniqueId), useCache).get(0);
+    }
+
+    /**
+     * Looks up the profiles of all given unique ids. The session service
+     * has no bulk endpoint, so ids that are not cached and not already
+     * being looked up by another thread are requested one at a time.
+     *
+     * @param uniqueIds The unique ids to look up
+     * @param useCache Whether cached results may be used
+     * @return The profiles, in the order of the ids
+     * @throws ProfileNotFoundException If any of the profiles is unknown
+     */
+    List<GameProfile> getAllById(Collection<UUID> uniqueIds, boolean useCache) throws ProfileNotFoundException {
+        Map<UUID, SettableFuture<GameProfile>> futures = Maps.newLinkedHashMap();
+        List<Object> owned = Lists.newArrayList();
+        for (UUID uniqueId : uniqueIds) {
+            if (!futures.containsKey(uniqueId)) {
+                futures.put(uniqueId, claim(uniqueId, this.byId.getIfPresent(uniqueId), useCache, owned));
+            }
+        }
+        for (Object key : owned) {
+            UUID uniqueId = (UUID) key;
+            SettableFuture<GameProfile> future = futures.get(uniqueId);
+            try {
+                this.rateLimit.acquire();
+                long start = System.nanoTime();
+                GameProfile profile = this.sessionService.fillProfileProperties(new GameProfile(uniqueId, null), false);
+                recordRequest(start);
+                if (profile == null || !profile.isComplete()) {
+                    // The session service returns the requested profile for
+                    // network errors and rate limiting as well as for unknown
+                    // ids, so an incomplete profile is not remembered
+                    fail(uniqueId, future, new ProfileNotFoundException("Profile: " + uniqueId));
+                } else {
+                    complete(uniqueId, future, profile, profile);
+                }
+            } catch (RuntimeException e) {
+                fail(uniqueId, future, e);
+            }
+        }
+        return collect(futures);
+    }
+
+    /**
+     * Looks up the profiles of all given names. Names that are not cached
+     * and not already being looked up by another thread are queued, and
+     * sent to the repository together with the names queued by other
+     * threads.
+     *
+     * @param names The names to look up
+     * @param useCache Whether cached results may be used
+     * @return The profiles, in the order of the names
+     * @throws ProfileNotFoundException If any of the profiles is unknown
+     */
+    List<GameProfile> getAllByName(Collection<String> names, boolean useCache) throws ProfileNotFoundException {
+        Map<String, SettableFuture<GameProfile>> futures = Maps.newLinkedHashMap();
+        List<Object> owned = Lists.newArrayList();
+        for (String name : names) {
+            String key = name.toLowerCase(Locale.ROOT);
+            if (!futures.containsKey(key)) {
+                futures.put(key, claim(key, this.byName.getIfPresent(key), useCache, owned));
+            }
+        }
+        if (!owned.isEmpty()) {
+            for (Object key : owned) {
+                this.queuedNames.add(Maps.immutableEntry((String) key, futures.get(key)));
+            }
+            for (Object key : owned) {
+                SettableFuture<GameProfile> future = futures.get(key);
+                // Every flush completes the futures it takes, so once the
+                // queue is drained our future must be done
+                boolean flushed = true;
+                while (flushed && !future.isDone()) {
+                    flushed = flushNames();
+                }
+                if (!future.isDone()) {
+                    fail(key, future, new IllegalStateException("Name was never sent to the repository: " + key));
+                }
+            }
+        }
+        return collect(futures);
+    }
+
+    // Sends the queued names to the repository. Only one batch is in flight
+    // at a time, so names queued meanwhile are sent together in the next one.
+    // Returns false if there was nothing to send.
+    private boolean flushNames() {
+        synchronized (this.nameBatchLock) {
+            final Map<String, SettableFuture<GameProfile>> batch = Maps.newLinkedHashMap();
+            Map.Entry<String, SettableFuture<GameProfile>> queued;
+            while (batch.size() < MAX_NAME_BATCH && (queued = this.queuedNames.poll()) != null) {
+                batch.put(queued.getKey(), queued.getValue());
+            }
+            if (batch.isEmpty()) {
+                return false;
+            }
+            this.rateLimit.acquire((batch.size() + NAMES_PER_REQUEST - 1) / NAMES_PER_REQUEST);
+            long start = System.nanoTime();
+            try {
+                this.repository.findProfilesByNames(batch.keySet().toArray(new String[batch.size()]), Agent.MINECRAFT,
+                        new ProfileLookupCallback() {
+
+                            @Override
+                            public void onProfileLookupSucceeded(GameProfile profile) {
+                                String key = profile.getName().toLowerCase(Locale.ROOT);
+                                complete(key, batch.get(key), profile, profile);
+                            }
+
+                            @Override
+                            public void onProfileLookupFailed(GameProfile profile, Exception exception) {
+                                String key = profile.getName().toLowerCase(Locale.ROOT);
+                                if (exception instanceof com.mojang.authlib.yggdrasil.ProfileNotFoundException) {
+                                    complete(key, batch.get(key), null, profile);
+                                } else {
+                                    // Don't remember names that failed for other reasons, such as network errors
+                                    fail(key, batch.get(key), exception);
+                                }
+                            }
+                        });
+                recordRequest(start);
+            } catch (RuntimeException e) {
+                for (Map.Entry<String, SettableFuture<GameProfile>> entry : batch.entrySet()) {
+                    fail(entry.getKey(), entry.getValue(), e);
+                }
+            } finally {
+                // Names the repository did not report on are left uncached.
+                // This also releases waiters if the lookup threw an error.
+                for (Map.Entry<String, SettableFuture<GameProfile>> entry : batch.entrySet()) {
+                    this.pending.remove(entry.getKey(), entry.getValue());
+                    entry.getValue().set(null);
+                }
+            }
+            return true;
+        }
+    }
+
+    private void recordRequest(long start) {
+        this.requestNanos.addAndGet(System.nanoTime() - start);
+        this.requestCount.incrementAndGet();
+    }
+
+    /**
+     * Gets the number of names waiting to be sent to the repository.
+     *
+     * @return The number of queued names
+     */
+    int getQueuedNameCount() {
+        return this.queuedNames.size();
+    }
+
+    /**
+     * Gets the number of remote requests made so far.
+     *
+     * @return The number of requests
+     */
+    long getRequestCount() {
+        return this.requestCount.get();
+    }
+
+    /**
+     * Gets the average time a remote request took, not counting the time
+     * spent waiting for the rate limit.
+     *
+     * @return The average request time in milliseconds
+     */
+    double getAverageRequestMillis() {
+        long count = this.requestCount.get();
+        return count == 0 ? 0 : this.requestNanos.get() / (count * 1e6D);
+    }
+
+    private SettableFuture<GameProfile> claim(Object key, @Nullable GameProfile cached, boolean useCache, List<Object> owned) {
+        if (useCache) {
+            if (cached != null) {
+                SettableFuture<GameProfile> future = SettableFuture.create();
+                future.set(cached);
+                return future;
+            }
+            if (this.misses.getIfPresent(key) != null) {
+                SettableFuture<GameProfile> future = SettableFuture.create();
+                future.set(null);
+                return future;
+            }
+        }
+        SettableFuture<GameProfile> future = SettableFuture.create();
+        SettableFuture<GameProfile> existing = this.pending.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+        owned.add(key);
+        return future;
+    }
+
+    private void complete(Object key, @Nullable SettableFuture<GameProfile> future, @Nullable GameProfile profile, GameProfile requested) {
+        if (profile != null) {
+            this.byId.put(profile.getId(), profile);
+            this.byName.put(profile.getName().toLowerCase(Locale.ROOT), profile);
+            this.misses.invalidate(profile.getId());
+            this.misses.invalidate(profile.getName().toLowerCase(Locale.ROOT));
+            if (this.listener != null) {
+                this.listener.onProfileLookupSucceeded(profile);
+            }
+        } else {
+            this.misses.put(key, Boolean.TRUE);
+            if (this.listener != null) {
+                this.listener.onProfileLookupFailed(requested, new ProfileNotFoundException("Profile: " + key));
+            }
+        }
+        if (future != null) {
+            this.pending.remove(key, future);
+            future.set(profile);
+        }
+    }
+
+    private void fail(Object key, @Nullable SettableFuture<GameProfile> future, Exception exception) {
+        if (future != null) {
+            this.pending.remove(key, future);
+            future.setException(exception);
+        }
+    }
+
+    private static List<GameProfile> collect(Map<?, SettableFuture<GameProfile>> futures) throws ProfileNotFoundException {
+        List<GameProfile> profiles = Lists.newArrayListWithCapacity(futures.size());
+        for (Map.Entry<?, SettableFuture<GameProfile>> entry : futures.entrySet()) {
+            GameProfile profile;
+            try {
+                profile = entry.getValue().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProfileNotFoundException("Interrupted while looking up profile: " + entry.getKey(), e);
+            } catch (ExecutionException e) {
+                throw new ProfileNotFoundException("Profile: " + entry.getKey(), e.getCause());
+            }
+            if (profile == null) {
+                throw new ProfileNotFoundException("Profile: " + entry.getKey());
+            }
+            profiles.add(profile);
+        }
+        return profiles;
+    }
+
+}
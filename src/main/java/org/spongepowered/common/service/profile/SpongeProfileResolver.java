@@ -31,13 +31,14 @@
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
-import com.mojang.authlib.Agent;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.mojang.authlib.ProfileLookupCallback;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.management.PlayerProfileCache;
 import org.spongepowered.api.GameProfile;
 import org.spongepowered.api.service.profile.GameProfileResolver;
 import org.spongepowered.api.service.profile.ProfileNotFoundException;
+import org.spongepowered.common.interfaces.IMixinPlayerProfileCache;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -48,9 +49,64 @@
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class SpongeProfileResolver implements GameProfileResolver {
 
+    private static final long PROFILE_TTL_MINUTES = 60;
+    private static final long NEGATIVE_TTL_MINUTES = 5;
+    private static final long SAVE_DELAY_SECONDS = 30;
+    // Mojang allows 600 profile requests per 10 minutes
+    private static final int REQUEST_LIMIT = 600;
+    private static final long REQUEST_LIMIT_MINUTES = 10;
+    private static final int LOOKUP_THREADS = 4;
+
+    private static final ScheduledExecutorService saveExecutor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("Sponge Profile Cache Save Thread").setDaemon(true).build());
+    private static final AtomicBoolean savePending = new AtomicBoolean();
+    private static MinecraftServer lookupServer;
+    private static ProfileLookupCache lookupCache;
+
+    static synchronized ProfileLookupCache getLookupCache() {
+        final MinecraftServer server = MinecraftServer.getServer();
+        if (lookupCache == null || lookupServer != server) {
+            lookupServer = server;
+            lookupCache = new ProfileLookupCache(server.getGameProfileRepository(), server.getMinecraftSessionService(),
+                    new ProfileLookupCallback() {
+
+                        @Override
+                        public void onProfileLookupSucceeded(com.mojang.authlib.GameProfile profile) {
+                            server.getPlayerProfileCache().addEntry(profile);
+                            scheduleSave(server.getPlayerProfileCache());
+                        }
+
+                        @Override
+                        public void onProfileLookupFailed(com.mojang.authlib.GameProfile profile, Exception exception) {
+                        }
+                    }, new TokenBucket(REQUEST_LIMIT, REQUEST_LIMIT_MINUTES, TimeUnit.MINUTES),
+                    PROFILE_TTL_MINUTES, NEGATIVE_TTL_MINUTES, TimeUnit.MINUTES);
+        }
+        return lookupCache;
+    }
+
+    // Writes usercache.json once after a burst of lookups instead of after each one
+    private static void scheduleSave(final PlayerProfileCache cache) {
+        if (savePending.compareAndSet(false, true)) {
+            saveExecutor.schedule(new Runnable() {
+
+                @Override
+                public void run() {
+                    savePending.set(false);
+                    cache.save();
+                }
+            }, SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
     private static abstract class Query<V> implements Callable<V> {
 
         private final boolean useCache;
@@ -62,30 +118,54 @@ public Query(boolean useCache) {
         }
 
         protected GameProfile fromId(UUID id) throws Exception {
+            return this.fromIds(Lists.newArrayList(id)).get(0);
+        }
+
+        protected List<GameProfile> fromIds(List<UUID> ids) throws Exception {
             if (this.useCache) {
-                GameProfile profile = (GameProfile) this.cache.getProfileByUUID(id);
-                if (profile != null) {
-                    return profile;
+                List<UUID> uncached = Lists.newArrayList();
+                for (UUID id : ids) {
+                    if (this.cache.getProfileByUUID(id) == null) {
+                        uncached.add(id);
+                    }
+                }
+                if (!uncached.isEmpty()) {
+                    // Resolve the remaining ids in one batch, then answer in order
+                    getLookupCache().getAllById(uncached, true);
                 }
+                return this.toProfiles(ids);
             }
             // TODO Possibly use UUID -> Name History
             // (http://wiki.vg/Mojang_API#UUID_-.3E_Name_history)
-            com.mojang.authlib.GameProfile profile =
-                    this.server.getMinecraftSessionService().fillProfileProperties(new com.mojang.authlib.GameProfile(id, null), false);
-            if (profile == null || !profile.isComplete()) {
-                throw new ProfileNotFoundException("Profile: " + profile);
+            return castProfiles(getLookupCache().getAllById(ids, false));
+        }
+
+        private List<GameProfile> toProfiles(List<UUID> ids) throws Exception {
+            List<GameProfile> profiles = Lists.newArrayListWithCapacity(ids.size());
+            for (UUID id : ids) {
+                com.mojang.authlib.GameProfile profile = this.cache.getProfileByUUID(id);
+                if (profile == null) {
+                    profile = getLookupCache().getById(id, true);
+                }
+                profiles.add((GameProfile) profile);
             }
-            return (GameProfile) profile;
+            return profiles;
         }
 
         protected List<GameProfile> fromNames(List<String> names) throws Exception {
             final List<GameProfile> profiles = Lists.newArrayList();
-            Set<String> cachedNames = Sets.newHashSet(this.cache.getUsernames());
             if (this.useCache) {
+                ProfileLookupCache lookupCache = getLookupCache();
+                Set<String> cachedNames = null;
                 for (int i = 0; i < names.size(); i++) {
-                    GameProfile profile = null;
-                    if (cachedNames.contains(names.get(i).toLowerCase(Locale.ROOT))) {
-                        profile = (GameProfile) this.cache.getGameProfileForUsername(names.get(i));
+                    GameProfile profile = (GameProfile) lookupCache.getIfPresent(names.get(i));
+                    if (profile == null) {
+                        if (cachedNames == null) {
+                            cachedNames = Sets.newHashSet(this.cache.getUsernames());
+                        }
+                        if (cachedNames.contains(names.get(i).toLowerCase(Locale.ROOT))) {
+                            profile = (GameProfile) this.cache.getGameProfileForUsername(names.get(i));
+                        }
                     }
                     if (profile != null) {
                         profiles.add(profile);
@@ -96,26 +176,7 @@ protected List<GameProfile> fromNames(List<String> names) throws Exception {
             if (names.isEmpty()) {
                 return profiles;
             }
-            final ProfileNotFoundException[] thrown = new ProfileNotFoundException[1];
-            this.server.getGameProfileRepository().findProfilesByNames(names.toArray(new String[0]), Agent.MINECRAFT, new ProfileLookupCallback() {
-
-                @Override
-                public void onProfileLookupSucceeded(com.mojang.authlib.GameProfile profile) {
-                    Query.this.cache.addEntry(profile);
-                    if (thrown[0] == null) {
-                        profiles.add((GameProfile) profile);
-                    }
-                }
-
-                @Override
-                public void onProfileLookupFailed(com.mojang.authlib.GameProfile profile, Exception exception) {
-                    thrown[0] = new ProfileNotFoundException("Profile: " + profile, exception);
-                }
-            });
-            this.cache.save();
-            if (thrown[0] != null) {
-                throw thrown[0];
-            }
+            profiles.addAll(castProfiles(getLookupCache().getAllByName(names, this.useCache)));
             return profiles;
         }
 
@@ -180,15 +241,60 @@ public Collection<GameProfile> call() throws Exception {
         }
 
         private Collection<GameProfile> iterateUuids(UUID first) throws Exception {
-            Collection<GameProfile> profiles = Lists.newArrayList(this.fromId(first));
+            List<UUID> ids = Lists.newArrayList(first);
             while (this.iterator.hasNext()) {
-                profiles.add(this.fromId((UUID) this.iterator.next()));
+                ids.add((UUID) this.iterator.next());
             }
-            return profiles;
+            return this.fromIds(ids);
         }
     }
 
-    private final ListeningExecutorService executor = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool());
+    // Lookups are rate limited anyway, so a few threads are enough to keep
+    // the limit saturated. Excess queries wait in the queue.
+    private final ThreadPoolExecutor threadPool = new ThreadPoolExecutor(LOOKUP_THREADS, LOOKUP_THREADS, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(),
+            new ThreadFactoryBuilder().setNameFormat("Sponge Profile Lookup Thread #%d").setDaemon(true).build());
+    private final ListeningExecutorService executor = MoreExecutors.listeningDecorator(this.threadPool);
+
+    public SpongeProfileResolver() {
+        this.threadPool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Gets the number of queries waiting for a lookup thread.
+     *
+     * @return The number of queued queries
+     */
+    public int getQueuedQueryCount() {
+        return this.threadPool.getQueue().size();
+    }
+
+    /**
+     * Gets the number of names waiting to be sent to the profile repository.
+     *
+     * @return The number of queued names
+     */
+    public int getQueuedNameCount() {
+        return getLookupCache().getQueuedNameCount();
+    }
+
+    /**
+     * Gets the number of requests sent to the profile services.
+     *
+     * @return The number of requests
+     */
+    public long getRequestCount() {
+        return getLookupCache().getRequestCount();
+    }
+
+    /**
+     * Gets the average time a request to the profile services took.
+     *
+     * @return The average request time in milliseconds
+     */
+    public double getAverageRequestMillis() {
+        return getLookupCache().getAverageRequestMillis();
+    }
 
     @Override
     public ListenableFuture<GameProfile> get(UUID uniqueId) {
@@ -222,30 +328,19 @@ public ListenableFuture<Collection<GameProfile>> getAllById(Iterable<UUID> uniqu
 
     @Override
     public Collection<GameProfile> getCachedProfiles() {
-        PlayerProfileCache cache = MinecraftServer.getServer().getPlayerProfileCache();
-        Collection<GameProfile> profiles = Lists.newArrayList();
-        for (String name : cache.getUsernames()) {
-            if (name != null) {
-                GameProfile profile = (GameProfile) cache.getGameProfileForUsername(name);
-                if (profile != null) {
-                    profiles.add(profile);
-                }
-            }
-        }
-        return profiles;
+        IMixinPlayerProfileCache cache = (IMixinPlayerProfileCache) MinecraftServer.getServer().getPlayerProfileCache();
+        return castProfiles(cache.getProfiles());
     }
 
     @Override
     public Collection<GameProfile> match(String lastKnownName) {
-        lastKnownName = checkNotNull(lastKnownName, "lastKnownName").toLowerCase(Locale.ROOT);
-        Collection<GameProfile> allProfiles = this.getCachedProfiles();
-        Collection<org.spongepowered.api.GameProfile> matching = Sets.newHashSet();
-        for (GameProfile profile : allProfiles) {
-            if (profile.getName().startsWith(lastKnownName)) {
-                matching.add(profile);
-            }
-        }
-        return matching;
+        IMixinPlayerProfileCache cache = (IMixinPlayerProfileCache) MinecraftServer.getServer().getPlayerProfileCache();
+        return castProfiles(cache.getProfilesByPrefix(checkNotNull(lastKnownName, "lastKnownName")));
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<GameProfile> castProfiles(List<com.mojang.authlib.GameProfile> profiles) {
+        return (List<GameProfile>) (List<?>) profiles;
     }
 
     // Internal. Get the profile from the UUID and block until a result
@@ -0,0 +1,92 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.profile;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket that allows bursts of up to its capacity, refilling at a
+ * rate of one full bucket per period.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final Ticker ticker;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(int capacity, long period, TimeUnit unit) {
+        this(capacity, period, unit, Ticker.systemTicker());
+    }
+
+    TokenBucket(int capacity, long period, TimeUnit unit, Ticker ticker) {
+        this.capacity = capacity;
+        this.tokensPerNano = capacity / (double) unit.toNanos(period);
+        this.ticker = ticker;
+        this.tokens = capacity;
+        this.lastRefill = ticker.read();
+    }
+
+    /**
+     * Takes a token from the bucket, waiting for one to become available
+     * if the bucket is empty.
+     */
+    void acquire() {
+        acquire(1);
+    }
+
+    /**
+     * Takes the given number of tokens from the bucket, waiting for them to
+     * become available if the bucket doesn't hold enough.
+     *
+     * @param permits The number of tokens, at most the capacity
+     */
+    synchronized void acquire(int permits) {
+        checkArgument(permits <= this.capacity, "permits must not exceed the capacity");
+        refill();
+        while (this.tokens < permits) {
+            sleep((long) Math.ceil((permits - this.tokens) / this.tokensPerNano));
+            refill();
+        }
+        this.tokens -= permits;
+    }
+
+    void sleep(long nanos) {
+        Uninterruptibles.sleepUninterruptibly(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void refill() {
+        long now = this.ticker.read();
+        this.tokens = Math.min(this.capacity, this.tokens + (now - this.lastRefill) * this.tokensPerNano);
+        this.lastRefill = now;
+    }
+
+}
@@ -24,27 +24,71 @@
  */
 package org.spongepowered.common.service.scheduler;
 
-import org.spongepowered.api.service.scheduler.Task;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.spongepowered.common.Sponge;
+import org.spongepowered.common.configuration.SpongeConfig;
 
-import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
 
 public class AsyncScheduler extends SchedulerBase {
 
-    // Adjustable timeout for pending Tasks
-    private long minimumTimeout = Long.MAX_VALUE;
-    private long lastProcessingTimestamp;
-    // Locking mechanism
-    private final Lock lock = new ReentrantLock();
-    private final Condition condition = this.lock.newCondition();
-    // The dynamic thread pooling executor of asynchronous tasks.
-    private ExecutorService executor;
+    // How long to wait before trying to start a deferred task again
+    private static final long DEFER_DELAY = 10;
+
+    // Pending tasks ordered by deadline, the scheduler thread sleeps until
+    // the first one is due or an earlier task is queued.
+    private final DelayQueue<QueuedTask> queue = new DelayQueue<QueuedTask>();
+    // A due task taken from the queue by the main loop, and the time the
+    // task being processed originally became due, before any deferral. Only
+    // accessed by the scheduler thread.
+    @Nullable private ScheduledTask nextDue;
+    private long nextDueTime;
+    private long currentDueTime;
+    // The bounded thread pooling executor of asynchronous tasks, created
+    // from the config once the first task is started.
+    @Nullable private volatile ThreadPoolExecutor executor;
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.DEFER;
+    private int maxTasksPerPlugin;
+    // The number of currently running (or queued) tasks of each plugin
+    private final ConcurrentMap<String, AtomicInteger> pluginTasks = Maps.newConcurrentMap();
+
+    // Metrics
+    private final AtomicLong rejectedTasks = new AtomicLong();
+    private final AtomicLong deferredTasks = new AtomicLong();
+    private final AtomicLong startedTasks = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    /**
+     * What to do with a task when the executor is saturated.
+     */
+    private enum RejectionPolicy {
+        /**
+         * Try to start the task again shortly after.
+         */
+        DEFER,
+        /**
+         * Skip this execution of the task.
+         */
+        DROP,
+        /**
+         * Run the task on the scheduler thread.
+         */
+        CALLER_RUNS
+    }
 
     AsyncScheduler() {
         super(ScheduledTask.TaskSynchronicity.ASYNCHRONOUS);
@@ -62,89 +106,214 @@ public void run() {
     }
 
     private void mainLoop() {
-        this.executor = Executors.newCachedThreadPool();
-        this.lastProcessingTimestamp = System.currentTimeMillis();
         while (true) {
-            recalibrateMinimumTimeout();
+            try {
+                QueuedTask queued = this.queue.take();
+                this.nextDue = queued.task;
+                this.nextDueTime = queued.due;
+            } catch (InterruptedException ignored) {
+                continue;
+            }
             this.runTick();
         }
     }
 
-    private void recalibrateMinimumTimeout() {
-        this.lock.lock();
-        try {
-            Set<Task> tasks = this.getScheduledTasks();
-            this.minimumTimeout = Long.MAX_VALUE;
-            long now = System.currentTimeMillis();
-            for (Task tmpTask : tasks) {
-                ScheduledTask task = (ScheduledTask) tmpTask;
-                // Recalibrate the wait delay for processing tasks before new
-                // tasks cause the scheduler to process pending tasks.
-                if (task.offset == 0 && task.period == 0) {
-                    this.minimumTimeout = 0;
-                }
-                // The time since the task last executed or was added to the map
-                long timeSinceLast = now - task.getTimestamp();
-
-                if (task.offset > 0 && task.getState() == ScheduledTask.ScheduledTaskState.WAITING) {
-                    // There is an offset and the task hasn't run yet
-                    this.minimumTimeout = Math.min(task.offset - timeSinceLast, this.minimumTimeout);
-                }
-                if (task.period > 0 && task.getState().isActive) {
-                    // The task repeats and has run after the initial delay
-                    this.minimumTimeout = Math.min(task.period - timeSinceLast, this.minimumTimeout);
-                }
-                if (this.minimumTimeout <= 0) {
-                    break;
-                }
-            }
-            if (!tasks.isEmpty()) {
-                long latency = System.currentTimeMillis() - this.lastProcessingTimestamp;
-                this.minimumTimeout -= (latency <= 0) ? 0 : latency;
-                this.minimumTimeout = (this.minimumTimeout < 0) ? 0 : this.minimumTimeout;
+    private ThreadPoolExecutor getExecutor() {
+        ThreadPoolExecutor executor = this.executor;
+        if (executor == null) {
+            SpongeConfig.SchedulerCategory config = Sponge.getGlobalConfig().getConfig().getScheduler();
+            int coreSize = Math.max(1, config.getAsyncCorePoolSize());
+            executor = new ThreadPoolExecutor(coreSize, Math.max(coreSize, config.getAsyncMaxPoolSize()), 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(Math.max(1, config.getAsyncQueueSize())),
+                    new ThreadFactoryBuilder().setNameFormat("Sponge Async Task Thread #%d").setDaemon(true).build(),
+                    new ThreadPoolExecutor.AbortPolicy());
+            try {
+                this.rejectionPolicy = RejectionPolicy.valueOf(config.getAsyncRejectionPolicy().toUpperCase().replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                Sponge.getLogger().warn("Unknown async scheduler rejection policy {}, using defer", config.getAsyncRejectionPolicy());
             }
-        } finally {
-            this.lock.unlock();
+            this.maxTasksPerPlugin = config.getAsyncMaxTasksPerPlugin();
+            this.executor = executor;
         }
+        return executor;
     }
 
     @Override
-    protected void preTick() {
-        this.lock.lock();
-        try {
-            this.condition.await(this.minimumTimeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException ignored) {
-            // The taskMap has been modified; there is work to do.
-            // Continue on without handling the Exception.
-        } catch (IllegalMonitorStateException e) {
-            Sponge.getLogger().error("The scheduler internal state machine suffered a catastrophic error", e);
-        }
+    protected void queueTask(ScheduledTask task, long deadline) {
+        this.queue.add(new QueuedTask(task, deadline));
     }
 
     @Override
-    protected void postTick() {
-        this.lastProcessingTimestamp = System.currentTimeMillis();
+    protected void dequeueTask(ScheduledTask task) {
+        Iterator<QueuedTask> it = this.queue.iterator();
+        while (it.hasNext()) {
+            if (it.next().task == task) {
+                it.remove();
+            }
+        }
     }
 
+    @Nullable
     @Override
-    protected void finallyPostTick() {
-        this.lock.unlock();
+    protected ScheduledTask pollDueTask() {
+        ScheduledTask task = this.nextDue;
+        if (task != null) {
+            this.nextDue = null;
+            this.currentDueTime = this.nextDueTime;
+            return task;
+        }
+        // Only returns tasks whose deadline has passed
+        QueuedTask queued = this.queue.poll();
+        if (queued == null) {
+            return null;
+        }
+        this.currentDueTime = queued.due;
+        return queued.task;
     }
 
     @Override
-    protected void executeTaskRunnable(Runnable runnable) {
-        this.executor.submit(runnable);
+    protected void deferTask(ScheduledTask task) {
+        this.deferredTasks.incrementAndGet();
+        // Keep the original due time, so the latency includes the deferral
+        this.queue.add(new QueuedTask(task, System.currentTimeMillis() + DEFER_DELAY, false, this.currentDueTime));
     }
 
     @Override
-    protected void addTask(ScheduledTask task) {
-        this.lock.lock();
+    protected boolean executeTaskRunnable(ScheduledTask task, final Runnable runnable) {
+        ThreadPoolExecutor executor = this.getExecutor();
+        final AtomicInteger running = this.getPluginTasks(task);
+        if (this.maxTasksPerPlugin > 0 && running.get() >= this.maxTasksPerPlugin) {
+            return false;
+        }
+
+        final long due = this.currentDueTime;
+        Runnable wrapped = new Runnable() {
+
+            @Override
+            public void run() {
+                recordLatency(System.currentTimeMillis() - due);
+                try {
+                    runnable.run();
+                } finally {
+                    running.decrementAndGet();
+                }
+            }
+        };
+
+        running.incrementAndGet();
         try {
-            super.addTask(task);
-            this.condition.signalAll();
-        } finally {
-            this.lock.unlock();
+            executor.execute(wrapped);
+            return true;
+        } catch (RejectedExecutionException e) {
+            this.rejectedTasks.incrementAndGet();
+            switch (this.rejectionPolicy) {
+                case CALLER_RUNS:
+                    wrapped.run();
+                    return true;
+                case DROP:
+                    running.decrementAndGet();
+                    Sponge.getLogger().warn("The async scheduler is saturated, skipping an execution of the task {} owned by {}", task.getName(),
+                            task.getOwner());
+                    // Don't leave a repeating task switching, which would
+                    // make it skip all further executions.
+                    if (task.getState() == ScheduledTask.ScheduledTaskState.SWITCHING) {
+                        task.setState(ScheduledTask.ScheduledTaskState.RUNNING);
+                    }
+                    return true;
+                default:
+                    running.decrementAndGet();
+                    return false;
+            }
+        }
+    }
+
+    private AtomicInteger getPluginTasks(ScheduledTask task) {
+        String pluginId = task.getOwner().getId();
+        AtomicInteger running = this.pluginTasks.get(pluginId);
+        if (running == null) {
+            running = new AtomicInteger();
+            AtomicInteger existing = this.pluginTasks.putIfAbsent(pluginId, running);
+            if (existing != null) {
+                running = existing;
+            }
+        }
+        return running;
+    }
+
+    private void recordLatency(long latency) {
+        latency = Math.max(0, latency);
+        this.startedTasks.incrementAndGet();
+        this.totalLatency.addAndGet(latency);
+        long max = this.maxLatency.get();
+        while (latency > max && !this.maxLatency.compareAndSet(max, latency)) {
+            max = this.maxLatency.get();
+        }
+    }
+
+    /**
+     * Gets the number of tasks waiting for a free thread.
+     *
+     * @return The queue depth
+     */
+    public int getQueueDepth() {
+        ThreadPoolExecutor executor = this.executor;
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+
+    public int getActiveThreads() {
+        ThreadPoolExecutor executor = this.executor;
+        return executor == null ? 0 : executor.getActiveCount();
+    }
+
+    public int getPoolSize() {
+        ThreadPoolExecutor executor = this.executor;
+        return executor == null ? 0 : executor.getPoolSize();
+    }
+
+    public long getStartedTasks() {
+        return this.startedTasks.get();
+    }
+
+    public long getRejectedTasks() {
+        return this.rejectedTasks.get();
+    }
+
+    public long getDeferredTasks() {
+        return this.deferredTasks.get();
+    }
+
+    /**
+     * Gets the average time between a task being due and it starting to run.
+     *
+     * @return The average latency, in milliseconds
+     */
+    public long getAverageLatency() {
+        long started = this.startedTasks.get();
+        return started == 0 ? 0 : this.totalLatency.get() / started;
+    }
+
+    /**
+     * Gets the longest time between a task being due and it starting to run.
+     *
+     * @return The maximum latency, in milliseconds
+     */
+    public long getMaxLatency() {
+        return this.maxLatency.get();
+    }
+
+    /**
+     * Gets the number of currently running or queued tasks per plugin.
+     *
+     * @return The number of tasks by plugin id
+     */
+    public Map<String, Integer> getRunningTasksByPlugin() {
+        ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+        for (Map.Entry<String, AtomicInteger> entry : this.pluginTasks.entrySet()) {
+            if (entry.getValue().get() > 0) {
+                builder.put(entry.getKey(), entry.getValue().get());
+            }
         }
+        return builder.build();
     }
 
 }
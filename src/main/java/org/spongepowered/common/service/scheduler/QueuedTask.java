@@ -0,0 +1,77 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.scheduler;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ScheduledTask} queued until a deadline.
+ *
+ * <p>The deadline is either a tick count or a wall clock time in
+ * milliseconds, {@link #getDelay(TimeUnit)} is only meaningful for the
+ * latter.</p>
+ */
+final class QueuedTask implements Delayed {
+
+    final ScheduledTask task;
+    final long deadline;
+    // Whether the deadline is in ticks rather than wall clock milliseconds
+    final boolean ticks;
+    // When the task originally became due, before it was deferred
+    final long due;
+
+    QueuedTask(ScheduledTask task, long deadline) {
+        this(task, deadline, false);
+    }
+
+    QueuedTask(ScheduledTask task, long deadline, boolean ticks) {
+        this(task, deadline, ticks, deadline);
+    }
+
+    QueuedTask(ScheduledTask task, long deadline, boolean ticks, long due) {
+        this.task = task;
+        this.deadline = deadline;
+        this.ticks = ticks;
+        this.due = due;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(this.deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        long otherDeadline;
+        if (other instanceof QueuedTask) {
+            otherDeadline = ((QueuedTask) other).deadline;
+        } else {
+            otherDeadline = System.currentTimeMillis() + other.getDelay(TimeUnit.MILLISECONDS);
+        }
+        return this.deadline < otherDeadline ? -1 : this.deadline > otherDeadline ? 1 : 0;
+    }
+
+}
@@ -30,6 +30,8 @@
 
 import java.util.UUID;
 
+import javax.annotation.Nullable;
+
 /**
  * An internal representation of a {@link Task} created by a plugin.
  */
@@ -47,6 +49,12 @@ public class ScheduledTask implements Task {
     private final String name;
     private final TaskSynchronicity syncType;
     private final String stringRepresentation;
+    // The scheduler the task was added to
+    @Nullable private volatile SchedulerBase scheduler;
+    // Execution statistics, only written by the scheduler executing the task
+    private volatile long executionCount;
+    private volatile long totalExecutionNanos;
+    private volatile long maxExecutionNanos;
 
     // Internal Task state. Not for user-service use.
     public enum ScheduledTaskState {
@@ -120,6 +128,10 @@ public boolean cancel() {
             success = true;
         }
         this.setState(ScheduledTask.ScheduledTaskState.CANCELED);
+        SchedulerBase scheduler = this.scheduler;
+        if (scheduler != null) {
+            scheduler.cancelTask(this);
+        }
         return success;
     }
 
@@ -151,6 +163,10 @@ void setTimestamp(long timestamp) {
         this.timestamp = timestamp;
     }
 
+    void setScheduler(SchedulerBase scheduler) {
+        this.scheduler = scheduler;
+    }
+
     ScheduledTaskState getState() {
         return this.state;
     }
@@ -159,6 +175,41 @@ void setState(ScheduledTaskState state) {
         this.state = state;
     }
 
+    /**
+     * Gets the number of times this task was executed.
+     *
+     * @return The execution count
+     */
+    public long getExecutionCount() {
+        return this.executionCount;
+    }
+
+    /**
+     * Gets the total time spent executing this task.
+     *
+     * @return The total time, in nanoseconds
+     */
+    public long getTotalExecutionNanos() {
+        return this.totalExecutionNanos;
+    }
+
+    /**
+     * Gets the longest time a single execution of this task took.
+     *
+     * @return The maximum time, in nanoseconds
+     */
+    public long getMaxExecutionNanos() {
+        return this.maxExecutionNanos;
+    }
+
+    void recordExecution(long nanos) {
+        this.executionCount++;
+        this.totalExecutionNanos += nanos;
+        if (nanos > this.maxExecutionNanos) {
+            this.maxExecutionNanos = nanos;
+        }
+    }
+
     @Override
     public String toString() {
         return this.stringRepresentation;
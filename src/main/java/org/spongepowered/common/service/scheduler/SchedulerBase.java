@@ -35,9 +35,12 @@
 import java.util.Set;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
+
 abstract class SchedulerBase {
 
-    // The simple queue of all pending (and running) ScheduledTasks
+    // All pending (and running) ScheduledTasks, the order in which they are
+    // processed is kept by the deadline queue of the implementation
     private final Map<UUID, ScheduledTask> taskMap = Maps.newConcurrentMap();
     private long sequenceNumber = 0L;
     private final String taskNameFmt;
@@ -63,16 +66,47 @@ protected long getTimestamp(ScheduledTask task) {
     }
 
     /**
-     * Adds the task to the task map, will attempt to process the task on the
-     * next call to {@link #runTick}.
+     * Adds the task to the task map and queues it to be processed by
+     * {@link #runTick} once its delay has passed.
      *
      * @param task The task to add
      */
     protected void addTask(ScheduledTask task) {
+        task.setScheduler(this);
         task.setTimestamp(this.getTimestamp(task));
         this.taskMap.put(task.getUniqueId(), task);
+        this.queueTask(task, task.getTimestamp() + task.offset);
     }
 
+    /**
+     * Queues the task to be returned from {@link #pollDueTask()} once the
+     * deadline has passed. The deadline uses the same time base as
+     * {@link #getTimestamp(ScheduledTask)} for the current state of the task.
+     *
+     * <p>This may be called from any thread.</p>
+     *
+     * @param task The task to queue
+     * @param deadline The timestamp after which the task is due
+     */
+    protected abstract void queueTask(ScheduledTask task, long deadline);
+
+    /**
+     * Removes the queued deadline of a cancelled task, if it has any.
+     *
+     * <p>This may be called from any thread.</p>
+     *
+     * @param task The cancelled task
+     */
+    protected abstract void dequeueTask(ScheduledTask task);
+
+    /**
+     * Gets and removes the next queued task whose deadline has passed.
+     *
+     * @return The next due task, or null if there is none
+     */
+    @Nullable
+    protected abstract ScheduledTask pollDueTask();
+
     /**
      * Removes the task from the task map.
      *
@@ -82,6 +116,17 @@ protected void removeTask(ScheduledTask task) {
         this.taskMap.remove(task.getUniqueId());
     }
 
+    /**
+     * Removes a cancelled task from the task map and the deadline queue, so
+     * it isn't kept until its deadline.
+     *
+     * @param task The cancelled task
+     */
+    void cancelTask(ScheduledTask task) {
+        this.removeTask(task);
+        this.dequeueTask(task);
+    }
+
     protected Optional<Task> getTask(UUID id) {
         return Optional.<Task>fromNullable(this.taskMap.get(id));
     }
@@ -93,12 +138,13 @@ protected Set<Task> getScheduledTasks() {
     }
 
     /**
-     * Process all tasks in the map.
+     * Process all tasks which are due.
      */
     protected final void runTick() {
         this.preTick();
         try {
-            for (ScheduledTask task : this.taskMap.values()) {
+            ScheduledTask task;
+            while ((task = this.pollDueTask()) != null) {
                 this.processTask(task);
             }
             this.postTick();
@@ -127,7 +173,7 @@ protected void finallyPostTick() {
     }
 
     /**
-     * Processes the task.
+     * Processes a task whose deadline has passed.
      *
      * @param task The task to process
      */
@@ -138,39 +184,55 @@ protected void processTask(ScheduledTask task) {
             this.removeTask(task);
             return;
         }
-        long threshold = Long.MAX_VALUE;
-        // Figure out if we start a delayed Task after threshold ticks or, start
-        // it after the interval (period) of the repeating task parameter.
-        if (task.getState() == ScheduledTask.ScheduledTaskState.WAITING) {
-            threshold = task.offset;
-        } else if (task.getState() == ScheduledTask.ScheduledTaskState.RUNNING) {
-            threshold = task.period;
+        // The previous execution of a repeating task hasn't started yet, skip
+        // this period instead of piling up executions.
+        if (task.getState() == ScheduledTask.ScheduledTaskState.SWITCHING) {
+            this.queueTask(task, this.getTimestamp(task) + task.period);
+            return;
         }
-        // This moment is 'now'
-        long now = this.getTimestamp(task);
-        // So, if the current time minus the timestamp of the task is greater
-        // than the delay to wait before starting the task, then start the task.
-        // Repeating tasks get a reset-timestamp each time they are set RUNNING
-        // If the task has a period of 0 (zero) this task will not repeat, and
-        // is removed after we start it.
-        if (threshold <= (now - task.getTimestamp())) {
-            task.setState(ScheduledTask.ScheduledTaskState.SWITCHING);
-            task.setTimestamp(this.getTimestamp(task));
-            startTask(task);
-            // If task is one time shot, remove it from the map.
-            if (task.period == 0L) {
-                this.removeTask(task);
+        ScheduledTask.ScheduledTaskState previousState = task.getState();
+        long previousTimestamp = task.getTimestamp();
+        task.setState(ScheduledTask.ScheduledTaskState.SWITCHING);
+        task.setTimestamp(this.getTimestamp(task));
+        // The deadline of the next period is based on when this execution was
+        // started, determine it before the task gets a chance to change state
+        long nextDeadline = task.getTimestamp() + task.period;
+        if (!startTask(task)) {
+            // The task can't be started right now, put it back the way it was
+            // (unless it was cancelled meanwhile) and try again later.
+            if (task.getState() == ScheduledTask.ScheduledTaskState.SWITCHING) {
+                task.setState(previousState);
+                task.setTimestamp(previousTimestamp);
             }
+            this.deferTask(task);
+            return;
         }
+        // If task is one time shot or was cancelled while running, remove it
+        // from the map, otherwise queue the next execution.
+        if (task.period == 0L || task.getState() == ScheduledTask.ScheduledTaskState.CANCELED) {
+            this.removeTask(task);
+        } else {
+            this.queueTask(task, nextDeadline);
+        }
+    }
+
+    /**
+     * Queues a task which could not be started to be processed again later.
+     *
+     * @param task The task to defer
+     */
+    protected void deferTask(ScheduledTask task) {
+        this.queueTask(task, this.getTimestamp(task) + 1);
     }
 
     /**
      * Begin the execution of a task. Exceptions are caught and logged.
      *
      * @param task The task to start
+     * @return Whether the task was started, false if it should be deferred
      */
-    protected void startTask(final ScheduledTask task) {
-        this.executeTaskRunnable(new Runnable() {
+    protected boolean startTask(final ScheduledTask task) {
+        return this.executeTaskRunnable(task, new Runnable() {
 
             @Override
             public void run() {
@@ -188,8 +250,11 @@ public void run() {
     /**
      * Actually run the runnable of a task.
      *
+     * @param task The task the runnable belongs to
      * @param runnable The runnable to run
+     * @return Whether the runnable was run or handed off to be run, false if
+     *     the task should be deferred
      */
-    protected abstract void executeTaskRunnable(Runnable runnable);
+    protected abstract boolean executeTaskRunnable(ScheduledTask task, Runnable runnable);
 
 }
@@ -155,6 +155,24 @@ void submit(ScheduledTask task) {
         getDelegate(task).addTask(task);
     }
 
+    /**
+     * Gets the scheduler running asynchronous tasks, for its metrics.
+     *
+     * @return The async scheduler
+     */
+    public AsyncScheduler getAsyncScheduler() {
+        return this.asyncScheduler;
+    }
+
+    /**
+     * Gets the scheduler running synchronous tasks, for its metrics.
+     *
+     * @return The sync scheduler
+     */
+    public SyncScheduler getSyncScheduler() {
+        return this.syncScheduler;
+    }
+
     /**
      * Ticks the synchronous scheduler.
      */
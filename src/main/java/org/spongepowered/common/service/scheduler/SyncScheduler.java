@@ -24,11 +24,59 @@
  */
 package org.spongepowered.common.service.scheduler;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.spongepowered.api.service.scheduler.Task;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
 public class SyncScheduler extends SchedulerBase {
 
+    // Must be a power of two
+    private static final int WHEEL_SIZE = 512;
+
     // The number of ticks elapsed since this scheduler began.
     private volatile long counter = 0L;
 
+    // Tasks queued from any thread, sorted into the wheel or the timed queue
+    // on the main thread at the start of each tick
+    private final Queue<QueuedTask> incoming = new ConcurrentLinkedQueue<QueuedTask>();
+    // Tasks cancelled from any thread, removed from the wheel or the timed
+    // queue on the main thread at the start of each tick
+    private final Queue<ScheduledTask> cancelled = new ConcurrentLinkedQueue<ScheduledTask>();
+    // The entry of each task in the wheel or the timed queue
+    private final Map<ScheduledTask, QueuedTask> sorted = Maps.newHashMap();
+    // Hashed timing wheel of tick based tasks, the slot of a task is its
+    // deadline modulo the wheel size. Tasks due more than a full turn ahead
+    // stay in their slot until the wheel comes around again.
+    @SuppressWarnings("unchecked")
+    private final List<QueuedTask>[] wheel = new List[WHEEL_SIZE];
+    // Wall clock based tasks, ordered by deadline
+    private final Queue<QueuedTask> timedTasks = new PriorityQueue<QueuedTask>();
+    // Tasks that are due in the current tick, or were deferred from a
+    // previous tick, in deadline order per plugin. The plugins with due tasks
+    // take turns in the order of the ring, which carries over between ticks.
+    private final Map<String, Queue<ScheduledTask>> dueTasks = Maps.newHashMap();
+    private final Queue<Queue<ScheduledTask>> dueRing = new ArrayDeque<Queue<ScheduledTask>>();
+    private final List<QueuedTask> dueThisTick = Lists.newArrayList();
+
+    // The time sync tasks may take per tick, 0 if unlimited
+    private long tickBudget;
+    private long tickStart;
+    private boolean startedTask;
+    private long deferredTasks;
+
     SyncScheduler() {
         super(ScheduledTask.TaskSynchronicity.SYNCHRONOUS);
     }
@@ -62,8 +110,185 @@ protected long getTimestamp(ScheduledTask task) {
     }
 
     @Override
-    protected void executeTaskRunnable(Runnable runnable) {
-        runnable.run();
+    protected void queueTask(ScheduledTask task, long deadline) {
+        // The time base must be determined now, along with the deadline. The
+        // state of the task may change before the task is sorted in preTick.
+        boolean ticks;
+        if (task.getState() == ScheduledTask.ScheduledTaskState.WAITING) {
+            ticks = task.delayIsTicks;
+        } else if (task.getState().isActive) {
+            ticks = task.intervalIsTicks;
+        } else {
+            // Cancelled tasks are dropped when they are sorted
+            ticks = false;
+        }
+        this.incoming.add(new QueuedTask(task, deadline, ticks));
+    }
+
+    @Override
+    protected void dequeueTask(ScheduledTask task) {
+        this.cancelled.add(task);
+    }
+
+    @Override
+    protected void preTick() {
+        long tick = this.counter;
+
+        QueuedTask queued;
+        while ((queued = this.incoming.poll()) != null) {
+            if (queued.task.getState() == ScheduledTask.ScheduledTaskState.CANCELED) {
+                // Already removed from the task map by the cancellation
+                continue;
+            }
+            if (queued.ticks && queued.deadline <= tick) {
+                // Tasks which are already overdue are due in this tick
+                this.dueThisTick.add(queued);
+            } else if (queued.ticks) {
+                int slot = (int) (queued.deadline & (WHEEL_SIZE - 1));
+                List<QueuedTask> bucket = this.wheel[slot];
+                if (bucket == null) {
+                    bucket = this.wheel[slot] = Lists.newArrayList();
+                }
+                bucket.add(queued);
+                this.sorted.put(queued.task, queued);
+            } else {
+                this.timedTasks.add(queued);
+                this.sorted.put(queued.task, queued);
+            }
+        }
+
+        ScheduledTask cancelledTask;
+        while ((cancelledTask = this.cancelled.poll()) != null) {
+            QueuedTask entry = this.sorted.remove(cancelledTask);
+            if (entry == null) {
+                continue;
+            }
+            if (entry.ticks) {
+                this.wheel[(int) (entry.deadline & (WHEEL_SIZE - 1))].remove(entry);
+            } else {
+                this.timedTasks.remove(entry);
+            }
+        }
+
+        List<QueuedTask> bucket = this.wheel[(int) (tick & (WHEEL_SIZE - 1))];
+        if (bucket != null) {
+            for (int i = 0; i < bucket.size(); i++) {
+                if (bucket.get(i).deadline <= tick) {
+                    this.dueThisTick.add(bucket.get(i));
+                    this.sorted.remove(bucket.get(i).task);
+                    // Swap with the last task, the order within a tick is undefined
+                    bucket.set(i--, bucket.get(bucket.size() - 1));
+                    bucket.remove(bucket.size() - 1);
+                }
+            }
+        }
+
+        Collections.sort(this.dueThisTick);
+        for (QueuedTask due : this.dueThisTick) {
+            this.addDueTask(due.task);
+        }
+        this.dueThisTick.clear();
+
+        long now = System.currentTimeMillis();
+        while (!this.timedTasks.isEmpty() && this.timedTasks.peek().deadline <= now) {
+            ScheduledTask task = this.timedTasks.poll().task;
+            this.sorted.remove(task);
+            this.addDueTask(task);
+        }
+
+        this.tickStart = System.nanoTime();
+        this.startedTask = false;
+    }
+
+    private void addDueTask(ScheduledTask task) {
+        String pluginId = task.getOwner().getId();
+        Queue<ScheduledTask> tasks = this.dueTasks.get(pluginId);
+        if (tasks == null) {
+            tasks = new ArrayDeque<ScheduledTask>();
+            this.dueTasks.put(pluginId, tasks);
+        }
+        if (tasks.isEmpty()) {
+            this.dueRing.add(tasks);
+        }
+        tasks.add(task);
+    }
+
+    @Nullable
+    @Override
+    protected ScheduledTask pollDueTask() {
+        if (this.dueRing.isEmpty()) {
+            return null;
+        }
+        // Always run at least one task per tick so a single task exceeding
+        // the budget can't stall the scheduler
+        if (this.tickBudget > 0 && this.startedTask && System.nanoTime() - this.tickStart >= this.tickBudget) {
+            this.deferredTasks += this.dueRing.size();
+            return null;
+        }
+        this.startedTask = true;
+
+        Queue<ScheduledTask> tasks = this.dueRing.poll();
+        ScheduledTask task = tasks.poll();
+        if (!tasks.isEmpty()) {
+            this.dueRing.add(tasks);
+        }
+        return task;
+    }
+
+    /**
+     * Sets the time synchronous tasks may take per tick. Tasks which are due
+     * once the budget is used up are deferred to the next tick.
+     *
+     * @param budget The budget, in milliseconds, 0 for unlimited
+     */
+    public void setTickBudget(long budget) {
+        this.tickBudget = TimeUnit.MILLISECONDS.toNanos(Math.max(0, budget));
+    }
+
+    /**
+     * Gets the number of times plugins had their due tasks deferred to the
+     * next tick because the tick budget was used up.
+     *
+     * @return The deferral count
+     */
+    public long getDeferredTasks() {
+        return this.deferredTasks;
+    }
+
+    /**
+     * Gets the currently scheduled tasks which were executed at least once,
+     * sorted by the total time spent executing them, longest first.
+     *
+     * @return The sorted tasks
+     */
+    public List<ScheduledTask> getTasksByExecutionTime() {
+        List<ScheduledTask> tasks = Lists.newArrayList();
+        for (Task task : this.getScheduledTasks()) {
+            if (((ScheduledTask) task).getExecutionCount() > 0) {
+                tasks.add((ScheduledTask) task);
+            }
+        }
+        Collections.sort(tasks, new Comparator<ScheduledTask>() {
+
+            @Override
+            public int compare(ScheduledTask t1, ScheduledTask t2) {
+                long n1 = t1.getTotalExecutionNanos();
+                long n2 = t2.getTotalExecutionNanos();
+                return n1 < n2 ? 1 : n1 > n2 ? -1 : 0;
+            }
+        });
+        return ImmutableList.copyOf(tasks);
+    }
+
+    @Override
+    protected boolean executeTaskRunnable(ScheduledTask task, Runnable runnable) {
+        long start = System.nanoTime();
+        try {
+            runnable.run();
+        } finally {
+            task.recordExecution(System.nanoTime() - start);
+        }
+        return true;
     }
 
 }
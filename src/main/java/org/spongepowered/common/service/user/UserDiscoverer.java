@@ -24,7 +24,8 @@
  */
 package org.spongepowered.common.service.user;
 
-import com.google.common.collect.Maps;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
 import com.mojang.authlib.GameProfile;
 import net.minecraft.nbt.CompressedStreamTools;
@@ -40,6 +41,7 @@
 import org.spongepowered.api.entity.living.player.User;
 import org.spongepowered.common.entity.player.SpongeUser;
 import org.spongepowered.common.interfaces.IMixinEntityPlayerMP;
+import org.spongepowered.common.interfaces.IMixinSaveHandler;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.world.DimensionManager;
 
@@ -49,13 +51,20 @@
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 class UserDiscoverer {
 
-    private static final Map<UUID, User> userCache = Maps.newHashMap();
+    private static final int USER_CACHE_SIZE = 10000;
+
+    // Online players are resolved from the player list, so evicting their
+    // user objects from here is harmless
+    private static final Cache<UUID, User> userCache = CacheBuilder.newBuilder()
+            .maximumSize(USER_CACHE_SIZE)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
 
     static User create(com.mojang.authlib.GameProfile profile) {
         User user = (User) new SpongeUser(profile);
@@ -73,7 +82,7 @@ static User create(com.mojang.authlib.GameProfile profile) {
      * @return The user data, or null if not found
      */
     static User findByUuid(UUID uniqueId) {
-        User user = userCache.get(uniqueId);
+        User user = userCache.getIfPresent(uniqueId);
         if (user != null) {
             return user;
         }
@@ -110,15 +119,14 @@ static Collection<org.spongepowered.api.GameProfile> getAllProfiles() {
         Set<org.spongepowered.api.GameProfile> profiles = Sets.newHashSet();
 
         // Add all cached profiles
-        for (User user : userCache.values()) {
+        for (User user : userCache.asMap().values()) {
             profiles.add(user.getProfile());
         }
 
         // Add all known profiles from the data files
-        SaveHandler saveHandler = (SaveHandler) DimensionManager.getWorldFromDimId(0).getSaveHandler();
-        String[] uuids = saveHandler.getAvailablePlayerDat();
-        for (String playerUuid : uuids) {
-            GameProfile profile = MinecraftServer.getServer().getPlayerProfileCache().getProfileByUUID(UUID.fromString(playerUuid));
+        PlayerProfileCache profileCache = MinecraftServer.getServer().getPlayerProfileCache();
+        for (UUID playerUuid : getSaveHandler().getPlayerDataIds()) {
+            GameProfile profile = profileCache.getProfileByUUID(playerUuid);
             if (profile != null) {
                 profiles.add((org.spongepowered.api.GameProfile) profile);
             }
@@ -212,29 +220,27 @@ private static User getFromBanlist(UUID uniqueId) {
         return null;
     }
 
-    private static File getPlayerDataFile(UUID uniqueId) {
+    private static IMixinSaveHandler getSaveHandler() {
         // Note: Uses the overworld's player data
-        SaveHandler saveHandler = (SaveHandler) DimensionManager.getWorldFromDimId(0).getSaveHandler();
-        String[] uuids = saveHandler.getAvailablePlayerDat();
-        for (String playerUuid : uuids) {
-            if (uniqueId.toString().equals(playerUuid)) {
-                return new File(saveHandler.playersDirectory, playerUuid + ".dat");
-            }
+        return (IMixinSaveHandler) DimensionManager.getWorldFromDimId(0).getSaveHandler();
+    }
+
+    private static File getPlayerDataFile(UUID uniqueId) {
+        IMixinSaveHandler saveHandler = getSaveHandler();
+        if (saveHandler.hasPlayerData(uniqueId)) {
+            return new File(((SaveHandler) saveHandler).playersDirectory, uniqueId + ".dat");
         }
         return null;
     }
 
     private static boolean deleteStoredPlayerData(UUID uniqueId) {
-        File dataFile = getPlayerDataFile(uniqueId);
-        if (dataFile != null) {
-            try {
-                return dataFile.delete();
-            } catch (SecurityException e) {
-                SpongeHooks.logWarning("Unable to delete file {} due to a security error. {}", dataFile, e);
-                return false;
-            }
+        userCache.invalidate(uniqueId);
+        try {
+            return getSaveHandler().deletePlayerData(uniqueId);
+        } catch (SecurityException e) {
+            SpongeHooks.logWarning("Unable to delete data of {} due to a security error. {}", uniqueId, e);
+            return false;
         }
-        return true;
     }
 
     private static boolean deleteWhitelistEntry(UUID uniqueId) {
@@ -62,6 +62,7 @@
 import org.spongepowered.api.world.World;
 import org.spongepowered.api.world.extent.Extent;
 import org.spongepowered.common.Sponge;
+import org.spongepowered.common.interfaces.IMixinWorld;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -85,6 +86,8 @@ public String apply(CommandSource input) {
 
         };
     private static final Vector3d ORIGIN = new Vector3d(0, 0, 0);
+    private static final Vector3d UNBOUNDED_MIN = new Vector3d(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+    private static final Vector3d UNBOUNDED_MAX = new Vector3d(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
     private static final Set<ArgumentType<?>> LOCATION_BASED_ARGUMENTS;
     private static final Function<Number, Double> TO_DOUBLE = new Function<Number, Double>() {
 
@@ -137,6 +140,9 @@ public boolean apply(I input) {
     private final Selector selector;
     private final Predicate<Entity> selectorFilter;
     private final boolean alwaysUsePosition;
+    // The box every selected entity must lie in, narrowed by the location based filters
+    private Vector3d searchMin = UNBOUNDED_MIN;
+    private Vector3d searchMax = UNBOUNDED_MAX;
 
     public SelectorResolver(Collection<? extends Extent> extents, Selector selector, boolean force) {
         this(extents, null, null, selector, force);
@@ -196,6 +202,8 @@ private void addDimensionFilters(final Vector3d position, List<Predicate<Entity>
         final Vector3d boxMin = det1.min(det2);
         final Vector3d boxMax = det1.max(det2);
         if (sel.has(ArgumentTypes.DIMENSION.x())) {
+            narrowSearchBox(new Vector3d(boxMin.getX(), UNBOUNDED_MIN.getY(), UNBOUNDED_MIN.getZ()),
+                new Vector3d(boxMax.getX(), UNBOUNDED_MAX.getY(), UNBOUNDED_MAX.getZ()));
             filters.add(new Predicate<Entity>() {
 
                 @Override
@@ -207,6 +215,8 @@ public boolean apply(Entity input) {
             });
         }
         if (sel.has(ArgumentTypes.DIMENSION.y())) {
+            narrowSearchBox(new Vector3d(UNBOUNDED_MIN.getX(), boxMin.getY(), UNBOUNDED_MIN.getZ()),
+                new Vector3d(UNBOUNDED_MAX.getX(), boxMax.getY(), UNBOUNDED_MAX.getZ()));
             filters.add(new Predicate<Entity>() {
 
                 @Override
@@ -218,6 +228,8 @@ public boolean apply(Entity input) {
             });
         }
         if (sel.has(ArgumentTypes.DIMENSION.z())) {
+            narrowSearchBox(new Vector3d(UNBOUNDED_MIN.getX(), UNBOUNDED_MIN.getY(), boxMin.getZ()),
+                new Vector3d(UNBOUNDED_MAX.getX(), UNBOUNDED_MAX.getY(), boxMax.getZ()));
             filters.add(new Predicate<Entity>() {
 
                 @Override
@@ -315,6 +327,7 @@ public boolean apply(Entity input) {
         if (radiusMax.isPresent()) {
             int radMax = radiusMax.get();
             final int radMaxSquared = radMax * radMax;
+            narrowSearchBox(position.sub(radMax, radMax, radMax), position.add(radMax, radMax, radMax));
             filters.add(new Predicate<Entity>() {
 
                 @Override
@@ -445,6 +458,24 @@ public boolean apply(Entity input) {
         }
     }
 
+    private void narrowSearchBox(Vector3d min, Vector3d max) {
+        this.searchMin = this.searchMin.max(min);
+        this.searchMax = this.searchMax.min(max);
+    }
+
+    private boolean isSearchBoxBounded() {
+        // Only the horizontal axes limit the chunks that have to be visited
+        return !Double.isInfinite(this.searchMin.getX()) && !Double.isInfinite(this.searchMax.getX())
+            && !Double.isInfinite(this.searchMin.getZ()) && !Double.isInfinite(this.searchMax.getZ());
+    }
+
+    private Collection<Entity> getCandidates(Extent extent) {
+        if (extent instanceof IMixinWorld && isSearchBoxBounded()) {
+            return ((IMixinWorld) extent).getEntitiesWithinBox(this.searchMin, this.searchMax, Predicates.<Entity>alwaysTrue());
+        }
+        return extent.getEntities();
+    }
+
     private Vector3d getPositionOrDefault(Vector3d pos, ArgumentHolder.Vector3<?, ? extends Number> vecTypes) {
         Optional<Double> x = this.selector.get(vecTypes.x()).transform(TO_DOUBLE);
         Optional<Double> y = this.selector.get(vecTypes.y()).transform(TO_DOUBLE);
@@ -467,7 +498,7 @@ public Set<Entity> resolve() {
         int count = 0;
         ImmutableSet.Builder<Entity> entities = ImmutableSet.builder();
         for (Extent extent : extents) {
-            Collection<Entity> allEntities = extent.getEntities();
+            Collection<Entity> allEntities = getCandidates(extent);
             if (selectorType == SelectorTypes.RANDOM) {
                 List<Entity> entityList = new ArrayList<Entity>(allEntities);
                 Collections.shuffle(entityList);
@@ -79,23 +79,26 @@ public static <T> Constructor<T> findConstructor(final Class<T> objectClass, Obj
         if (args == null) {
             args = new Object[] {null};
         }
-        // labeled loops
-        dance:
         for (final Constructor<?> ctor : ctors) {
-            final Class<?>[] paramTypes = ctor.getParameterTypes();
-            if (paramTypes.length != args.length) {
-                continue; // we haven't found the right constructor
+            if (isApplicable(ctor, args)) {
+                // We've found the right constructor, now to actually construct it!
+                return (Constructor<T>) ctor;
             }
-            for (int i = 0; i < paramTypes.length; i++) {
-                final Class<?> parameter = paramTypes[i];
-                if (!isAssignable(args[i] == null ? null : args[i].getClass(), parameter, true)) {
-                    continue dance; // continue the outer loop since we didn't find the right one
-                }
-            }
-            // We've found the right constructor, now to actually construct it!
-            return (Constructor<T>) ctor;
         }
         throw new IllegalArgumentException("Applicable constructor not found!");
     }
 
+    public static boolean isApplicable(final Constructor<?> ctor, Object... args) {
+        final Class<?>[] paramTypes = ctor.getParameterTypes();
+        if (paramTypes.length != args.length) {
+            return false; // we haven't found the right constructor
+        }
+        for (int i = 0; i < paramTypes.length; i++) {
+            if (!isAssignable(args[i] == null ? null : args[i].getClass(), paramTypes[i], true)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
@@ -43,6 +43,7 @@
 import org.spongepowered.common.Sponge;
 import org.spongepowered.common.configuration.SpongeConfig;
 import org.spongepowered.common.configuration.SpongeConfig.WorldConfig;
+import org.spongepowered.common.configuration.WorldConfigSnapshot;
 import org.spongepowered.common.interfaces.IMixinWorld;
 import org.spongepowered.common.interfaces.IMixinWorldProvider;
 
@@ -132,12 +133,12 @@ private static void logChunkLoadOverride(ChunkProviderServer provider, int x, in
     }
 
     public static boolean checkBoundingBoxSize(Entity entity, AxisAlignedBB aabb) {
-        SpongeConfig<?> config = getActiveConfig(entity.worldObj);
         if (!(entity instanceof EntityLivingBase) || entity instanceof EntityPlayer) {
             return false; // only check living entities that are not players
         }
 
-        int maxBoundingBoxSize = config.getConfig().getEntity().getMaxBoundingBoxSize();
+        WorldConfigSnapshot settings = ((IMixinWorld) entity.worldObj).getActiveConfigSnapshot();
+        int maxBoundingBoxSize = settings.getMaxBoundingBoxSize();
         if (maxBoundingBoxSize <= 0) {
             return false;
         }
@@ -159,7 +160,7 @@ public static boolean checkBoundingBoxSize(Entity entity, AxisAlignedBB aabb) {
             NBTTagCompound tag = new NBTTagCompound();
             entity.writeToNBT(tag);
             logWarning("Entity NBT: {0}", tag);
-            logStack(config);
+            logStack(settings.getConfig());
             entity.setDead();
             return true;
         }
@@ -167,12 +168,13 @@ public static boolean checkBoundingBoxSize(Entity entity, AxisAlignedBB aabb) {
     }
 
     public static boolean checkEntitySpeed(Entity entity, double x, double y, double z) {
-        SpongeConfig<?> config = getActiveConfig(entity.worldObj);
-        int maxSpeed = config.getConfig().getEntity().getMaxSpeed();
+        WorldConfigSnapshot settings = ((IMixinWorld) entity.worldObj).getActiveConfigSnapshot();
+        int maxSpeed = settings.getMaxSpeed();
         if (maxSpeed > 0) {
             double distance = x * x + z * z;
             if (distance > maxSpeed) {
-                if (config.getConfig().getLogging().logEntitySpeedRemoval()) {
+                if (settings.logEntitySpeedRemoval()) {
+                    SpongeConfig<?> config = settings.getConfig();
                     logInfo("[" + config.getConfigName() + "] Speed violation: {0} was over {1} - Removing Entity: {2}", distance, maxSpeed, entity);
                     if (entity instanceof EntityLivingBase) {
                         EntityLivingBase livingBase = (EntityLivingBase) entity;
@@ -182,7 +184,7 @@ public static boolean checkEntitySpeed(Entity entity, double x, double y, double
                                 livingBase.moveStrafing, livingBase.moveForward);
                     }
 
-                    if (config.getConfig().getLogging().logWithStackTraces()) {
+                    if (settings.logWithStackTraces()) {
                         logInfo("[" + config.getConfigName() + "] Move offset: ({0}, {1}, {2})", x, y, z);
                         logInfo("[" + config.getConfigName() + "] Motion: ({0}, {1}, {2})", entity.motionX, entity.motionY, entity.motionZ);
                         logInfo("[" + config.getConfigName() + "] Entity: {0}", entity);
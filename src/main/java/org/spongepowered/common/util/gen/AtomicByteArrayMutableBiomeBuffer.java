@@ -0,0 +1,159 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import com.flowpowered.math.vector.Vector2i;
+import net.minecraft.world.biome.BiomeGenBase;
+import org.spongepowered.api.util.DiscreteTransform2;
+import org.spongepowered.api.util.annotation.NonnullByDefault;
+import org.spongepowered.api.world.biome.BiomeType;
+import org.spongepowered.api.world.biome.BiomeTypes;
+import org.spongepowered.api.world.extent.ImmutableBiomeArea;
+import org.spongepowered.api.world.extent.MutableBiomeArea;
+import org.spongepowered.api.world.extent.StorageType;
+import org.spongepowered.api.world.extent.UnmodifiableBiomeArea;
+import org.spongepowered.common.world.extent.MutableBiomeViewDownsize;
+import org.spongepowered.common.world.extent.MutableBiomeViewTransform;
+import org.spongepowered.common.world.extent.UnmodifiableBiomeAreaWrapper;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Thread safe mutable biome area. The biome ids are packed four per element
+ * of an atomic integer array, so it takes the same memory as
+ * {@link ByteArrayMutableBiomeBuffer} and concurrent writes to neighbouring
+ * columns never lose each other.
+ */
+@NonnullByDefault
+public final class AtomicByteArrayMutableBiomeBuffer extends AbstractBiomeBuffer implements MutableBiomeArea {
+
+    private final AtomicIntegerArray biomes;
+
+    public AtomicByteArrayMutableBiomeBuffer(Vector2i start, Vector2i size) {
+        super(start, size);
+        this.biomes = new AtomicIntegerArray((size.getX() * size.getY() + 3) >> 2);
+    }
+
+    public AtomicByteArrayMutableBiomeBuffer(byte[] biomes, Vector2i start, Vector2i size) {
+        super(start, size);
+        final int[] packed = new int[(biomes.length + 3) >> 2];
+        for (int i = 0; i < biomes.length; i++) {
+            packed[i >> 2] |= (biomes[i] & 0xFF) << ((i & 3) << 3);
+        }
+        this.biomes = new AtomicIntegerArray(packed);
+    }
+
+    @Override
+    public void setBiome(Vector2i position, BiomeType biome) {
+        setBiome(position.getX(), position.getY(), biome);
+    }
+
+    @Override
+    public void setBiome(int x, int z, BiomeType biome) {
+        checkRange(x, z);
+        setId(getIndex(x, z), ((BiomeGenBase) biome).biomeID);
+    }
+
+    @Override
+    public BiomeType getBiome(Vector2i position) {
+        return getBiome(position.getX(), position.getY());
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    @Override
+    public BiomeType getBiome(int x, int z) {
+        checkRange(x, z);
+        BiomeType biomeType = (BiomeType) BiomeGenBase.getBiomeGenArray()[getId(getIndex(x, z))];
+        return biomeType == null ? BiomeTypes.OCEAN : biomeType;
+    }
+
+    void setId(int index, int id) {
+        final int shift = (index & 3) << 3;
+        final int mask = 0xFF << shift;
+        final int bits = (id & 0xFF) << shift;
+        int current;
+        do {
+            current = this.biomes.get(index >> 2);
+        } while (!this.biomes.compareAndSet(index >> 2, current, current & ~mask | bits));
+    }
+
+    int getId(int index) {
+        return this.biomes.get(index >> 2) >>> ((index & 3) << 3) & 0xFF;
+    }
+
+    /**
+     * Copies the biome ids into a new array with the layout of
+     * {@link ByteArrayMutableBiomeBuffer}. Each id is read atomically, but
+     * the copy isn't a snapshot of concurrent writes.
+     *
+     * @return The copied ids
+     */
+    public byte[] toByteArray() {
+        final byte[] copy = new byte[this.size.getX() * this.size.getY()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = (byte) getId(i);
+        }
+        return copy;
+    }
+
+    @Override
+    public MutableBiomeArea getBiomeView(Vector2i newMin, Vector2i newMax) {
+        checkRange(newMin.getX(), newMin.getY());
+        checkRange(newMax.getX(), newMax.getY());
+        return new MutableBiomeViewDownsize(this, newMin, newMax);
+    }
+
+    @Override
+    public MutableBiomeArea getBiomeView(DiscreteTransform2 transform) {
+        return new MutableBiomeViewTransform(this, transform);
+    }
+
+    @Override
+    public MutableBiomeArea getRelativeBiomeView() {
+        return getBiomeView(DiscreteTransform2.fromTranslation(this.start.negate()));
+    }
+
+    @Override
+    public UnmodifiableBiomeArea getUnmodifiableBiomeView() {
+        return new UnmodifiableBiomeAreaWrapper(this);
+    }
+
+    @Override
+    public MutableBiomeArea getBiomeCopy(StorageType type) {
+        switch (type) {
+            case STANDARD:
+                return new ByteArrayMutableBiomeBuffer(toByteArray(), this.start, this.size);
+            case THREAD_SAFE:
+                return new AtomicByteArrayMutableBiomeBuffer(toByteArray(), this.start, this.size);
+            default:
+                throw new UnsupportedOperationException(type.name());
+        }
+    }
+
+    @Override
+    public ImmutableBiomeArea getImmutableBiomeCopy() {
+        return ByteArrayImmutableBiomeBuffer.newWithoutArrayClone(toByteArray(), this.start, this.size);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.block.Block;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockType;
+import org.spongepowered.api.block.BlockTypes;
+import org.spongepowered.api.util.DiscreteTransform3;
+import org.spongepowered.api.util.annotation.NonnullByDefault;
+import org.spongepowered.api.world.extent.ImmutableBlockVolume;
+import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.api.world.extent.StorageType;
+import org.spongepowered.api.world.extent.UnmodifiableBlockVolume;
+import org.spongepowered.common.world.extent.MutableBlockViewDownsize;
+import org.spongepowered.common.world.extent.MutableBlockViewTransform;
+import org.spongepowered.common.world.extent.UnmodifiableBlockVolumeWrapper;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Thread safe mutable block volume. The block state ids are packed two per
+ * element of an atomic integer array, so it takes the same memory as
+ * {@link ShortArrayMutableBlockBuffer} and concurrent writes to neighbouring
+ * blocks never lose each other.
+ */
+@NonnullByDefault
+public class AtomicShortArrayMutableBlockBuffer extends AbstractBlockBuffer implements MutableBlockVolume {
+
+    private final AtomicIntegerArray blocks;
+
+    public AtomicShortArrayMutableBlockBuffer(Vector3i start, Vector3i size) {
+        super(start, size);
+        this.blocks = new AtomicIntegerArray((size.getX() * size.getY() * size.getZ() + 1) >> 1);
+    }
+
+    public AtomicShortArrayMutableBlockBuffer(short[] blocks, Vector3i start, Vector3i size) {
+        super(start, size);
+        final int[] packed = new int[(blocks.length + 1) >> 1];
+        for (int i = 0; i < blocks.length; i++) {
+            packed[i >> 1] |= (blocks[i] & 0xFFFF) << ((i & 1) << 4);
+        }
+        this.blocks = new AtomicIntegerArray(packed);
+    }
+
+    @Override
+    public void setBlock(Vector3i position, BlockState block) {
+        setBlock(position.getX(), position.getY(), position.getZ(), block);
+    }
+
+    @Override
+    public void setBlockType(Vector3i position, BlockType type) {
+        setBlockType(position.getX(), position.getY(), position.getZ(), type);
+    }
+
+    @Override
+    public void setBlockType(int x, int y, int z, BlockType type) {
+        setBlock(x, y, z, type.getDefaultState());
+    }
+
+    @Override
+    public void setBlock(int x, int y, int z, BlockState block) {
+        checkRange(x, y, z);
+        setId(getIndex(x, y, z), Block.BLOCK_STATE_IDS.get(block));
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    @Override
+    public BlockState getBlock(int x, int y, int z) {
+        checkRange(x, y, z);
+        BlockState block = (BlockState) Block.BLOCK_STATE_IDS.getByValue(getId(getIndex(x, y, z)));
+        return block == null ? BlockTypes.AIR.getDefaultState() : block;
+    }
+
+    void setId(int index, int id) {
+        final int shift = (index & 1) << 4;
+        final int mask = 0xFFFF << shift;
+        final int bits = (id & 0xFFFF) << shift;
+        int current;
+        do {
+            current = this.blocks.get(index >> 1);
+        } while (!this.blocks.compareAndSet(index >> 1, current, current & ~mask | bits));
+    }
+
+    int getId(int index) {
+        return this.blocks.get(index >> 1) >>> ((index & 1) << 4) & 0xFFFF;
+    }
+
+    /**
+     * Copies the block state ids into a new array with the layout of
+     * {@link ShortArrayMutableBlockBuffer}. Each id is read atomically, but
+     * the copy isn't a snapshot of concurrent writes.
+     *
+     * @return The copied ids
+     */
+    public short[] toShortArray() {
+        final short[] copy = new short[this.size.getX() * this.size.getY() * this.size.getZ()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = (short) getId(i);
+        }
+        return copy;
+    }
+
+    @Override
+    public MutableBlockVolume getBlockView(Vector3i newMin, Vector3i newMax) {
+        checkRange(newMin.getX(), newMin.getY(), newMin.getZ());
+        checkRange(newMax.getX(), newMax.getY(), newMax.getZ());
+        return new MutableBlockViewDownsize(this, newMin, newMax);
+    }
+
+    @Override
+    public MutableBlockVolume getBlockView(DiscreteTransform3 transform) {
+        return new MutableBlockViewTransform(this, transform);
+    }
+
+    @Override
+    public MutableBlockVolume getRelativeBlockView() {
+        return getBlockView(DiscreteTransform3.fromTranslation(this.start.negate()));
+    }
+
+    @Override
+    public UnmodifiableBlockVolume getUnmodifiableBlockView() {
+        return new UnmodifiableBlockVolumeWrapper(this);
+    }
+
+    @Override
+    public MutableBlockVolume getBlockCopy(StorageType type) {
+        switch (type) {
+            case STANDARD:
+                return new ShortArrayMutableBlockBuffer(toShortArray(), this.start, this.size);
+            case THREAD_SAFE:
+                return new AtomicShortArrayMutableBlockBuffer(toShortArray(), this.start, this.size);
+            default:
+                throw new UnsupportedOperationException(type.name());
+        }
+    }
+
+    @Override
+    public ImmutableBlockVolume getImmutableBlockCopy() {
+        return ShortArrayImmutableBlockBuffer.newWithoutArrayClone(toShortArray(), this.start, this.size);
+    }
+}
@@ -34,6 +34,7 @@
 import org.spongepowered.api.world.extent.MutableBlockVolume;
 import org.spongepowered.api.world.extent.StorageType;
 import org.spongepowered.api.world.extent.UnmodifiableBlockVolume;
+import org.spongepowered.common.interfaces.IMixinBlockVolume;
 import org.spongepowered.common.world.extent.ImmutableBlockViewDownsize;
 import org.spongepowered.common.world.extent.ImmutableBlockViewTransform;
 
@@ -61,6 +62,16 @@ public BlockState getBlock(int x, int y, int z) {
         return block == null ? AIR : block;
     }
 
+    /**
+     * Sets the blocks of the volume at the same positions to the blocks of
+     * this buffer.
+     *
+     * @param volume The volume to copy to
+     */
+    public void copyTo(IMixinBlockVolume volume) {
+        volume.copyBlocksFrom(this.start, this.end, this.blocks, this.start, this.size);
+    }
+
     @Override
     public ImmutableBlockVolume getBlockView(Vector3i newMin, Vector3i newMax) {
         checkRange(newMin.getX(), newMin.getY(), newMin.getZ());
@@ -89,6 +100,7 @@ public MutableBlockVolume getBlockCopy(StorageType type) {
             case STANDARD:
                 return new ShortArrayMutableBlockBuffer(this.blocks.clone(), this.start, this.size);
             case THREAD_SAFE:
+                return new AtomicShortArrayMutableBlockBuffer(this.blocks, this.start, this.size);
             default:
                 throw new UnsupportedOperationException(type.name());
         }
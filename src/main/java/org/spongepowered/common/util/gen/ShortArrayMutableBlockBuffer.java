@@ -35,6 +35,7 @@
 import org.spongepowered.api.world.extent.MutableBlockVolume;
 import org.spongepowered.api.world.extent.StorageType;
 import org.spongepowered.api.world.extent.UnmodifiableBlockVolume;
+import org.spongepowered.common.interfaces.IMixinBlockVolume;
 import org.spongepowered.common.world.extent.MutableBlockViewDownsize;
 import org.spongepowered.common.world.extent.MutableBlockViewTransform;
 import org.spongepowered.common.world.extent.UnmodifiableBlockVolumeWrapper;
@@ -83,6 +84,25 @@ public BlockState getBlock(int x, int y, int z) {
         return block == null ? AIR : block;
     }
 
+    /**
+     * Fills this buffer with the blocks of the volume at the same positions.
+     *
+     * @param volume The volume to copy from
+     */
+    public void copyFrom(IMixinBlockVolume volume) {
+        volume.copyBlocksTo(this.start, this.end, this.blocks, this.start, this.size);
+    }
+
+    /**
+     * Sets the blocks of the volume at the same positions to the blocks of
+     * this buffer.
+     *
+     * @param volume The volume to copy to
+     */
+    public void copyTo(IMixinBlockVolume volume) {
+        volume.copyBlocksFrom(this.start, this.end, this.blocks, this.start, this.size);
+    }
+
     @Override
     public MutableBlockVolume getBlockView(Vector3i newMin, Vector3i newMax) {
         checkRange(newMin.getX(), newMin.getY(), newMin.getZ());
@@ -111,6 +131,7 @@ public MutableBlockVolume getBlockCopy(StorageType type) {
             case STANDARD:
                 return new ShortArrayMutableBlockBuffer(this.blocks.clone(), this.start, this.size);
             case THREAD_SAFE:
+                return new AtomicShortArrayMutableBlockBuffer(this.blocks, this.start, this.size);
             default:
                 throw new UnsupportedOperationException(type.name());
         }
@@ -49,6 +49,7 @@
 import org.spongepowered.common.interfaces.IMixinEntityPlayerMP;
 import org.spongepowered.common.interfaces.IMixinMinecraftServer;
 import org.spongepowered.common.interfaces.IMixinWorldProvider;
+import org.spongepowered.common.world.gen.CustomChunkProviderGenerate;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -209,7 +210,13 @@ public static void setWorld(int id, WorldServer world) {
             ((IMixinMinecraftServer) MinecraftServer.getServer()).getWorldTickTimes().put(id, new long[100]);
             Sponge.getLogger().info("Loading dimension {} ({}) ({})", id, world.getWorldInfo().getWorldName(), world.getMinecraftServer());
         } else {
-            worlds.remove(id);
+            WorldServer oldWorld = worlds.remove(id);
+            if (oldWorld != null) {
+                WorldPregenerator.stopRunning((org.spongepowered.api.world.World) oldWorld);
+            }
+            if (oldWorld != null && oldWorld.theChunkProviderServer.serverChunkGenerator instanceof CustomChunkProviderGenerate) {
+                ((CustomChunkProviderGenerate) oldWorld.theChunkProviderServer.serverChunkGenerator).shutdown();
+            }
             ((IMixinMinecraftServer) MinecraftServer.getServer()).getWorldTickTimes().remove(id);
             Sponge.getLogger().info("Unloading dimension {}", id);
         }
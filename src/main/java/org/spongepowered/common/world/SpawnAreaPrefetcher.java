@@ -0,0 +1,120 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.util.BlockPos;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.storage.RegionFileCache;
+import net.minecraft.world.gen.ChunkProviderServer;
+import org.spongepowered.common.Sponge;
+import org.spongepowered.common.world.gen.CustomChunkProviderGenerate;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Warms up the spawn areas of worlds on worker threads while the server
+ * thread loads them one world at a time. This is only a cache warm-up: the
+ * compressed data of saved chunks is read from the region files and thrown
+ * away, so that the server thread's own reads are served from the disk cache,
+ * and missing chunks are prepared ahead of time by custom generators that
+ * support parallel generation. Decompressing, parsing, loading and generating
+ * chunks all still happen on the server thread.
+ */
+public final class SpawnAreaPrefetcher {
+
+    public static final int SPAWN_RADIUS = 192;
+
+    private final ExecutorService executor;
+
+    private SpawnAreaPrefetcher(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Starts prefetching the spawn areas of the worlds, one worker thread per
+     * world up to the number of processors.
+     *
+     * @param worlds The worlds, in the order they will be loaded
+     * @return The prefetcher
+     */
+    public static SpawnAreaPrefetcher start(List<WorldServer> worlds) {
+        int threads = Math.max(1, Math.min(worlds.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("Sponge Spawn Prefetch Thread #%d").setDaemon(true).build());
+        for (final WorldServer world : worlds) {
+            executor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    prefetch(world);
+                }
+
+            });
+        }
+        executor.shutdown();
+        return new SpawnAreaPrefetcher(executor);
+    }
+
+    private static void prefetch(WorldServer world) {
+        final ChunkProviderServer provider = world.theChunkProviderServer;
+        final CustomChunkProviderGenerate generator = provider.serverChunkGenerator instanceof CustomChunkProviderGenerate
+                && ((CustomChunkProviderGenerate) provider.serverChunkGenerator).isParallel()
+                ? (CustomChunkProviderGenerate) provider.serverChunkGenerator : null;
+        final File directory = world.getSaveHandler().getWorldDirectory();
+        final BlockPos spawn = world.getSpawnPoint();
+        for (int x = -SPAWN_RADIUS; x <= SPAWN_RADIUS && !Thread.currentThread().isInterrupted(); x += 16) {
+            for (int z = -SPAWN_RADIUS; z <= SPAWN_RADIUS; z += 16) {
+                final int chunkX = spawn.getX() + x >> 4;
+                final int chunkZ = spawn.getZ() + z >> 4;
+                // Opening the stream reads the compressed data from disk, so it
+                // is in the file cache when the chunk loader reads it again
+                DataInputStream stream = RegionFileCache.getChunkInputStream(directory, chunkX, chunkZ);
+                if (stream != null) {
+                    try {
+                        stream.close();
+                    } catch (IOException e) {
+                        Sponge.getLogger().debug("Could not prefetch chunk {}, {}", chunkX, chunkZ, e);
+                    }
+                } else if (generator != null) {
+                    generator.prepareChunk(chunkX, chunkZ);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the prefetching that is still queued or running.
+     */
+    public void stop() {
+        this.executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,354 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Maps;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.storage.RegionFileCache;
+import net.minecraft.world.gen.ChunkProviderServer;
+import org.spongepowered.api.service.scheduler.Task;
+import org.spongepowered.api.text.Texts;
+import org.spongepowered.api.util.command.CommandSource;
+import org.spongepowered.api.world.World;
+import org.spongepowered.common.Sponge;
+import org.spongepowered.common.interfaces.IMixinWorldInfo;
+import org.spongepowered.common.world.gen.CustomChunkProviderGenerate;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+/**
+ * Loads, and if needed generates, the chunks in a square around a center
+ * chunk, spiralling outwards. A limited amount of time is spent every tick
+ * and the chunks that were loaded are unloaded again once their neighbours
+ * are loaded. The progress is stored in the level data of the world, so that
+ * it can be resumed after a restart.
+ */
+public final class WorldPregenerator implements Runnable {
+
+    public static final int DEFAULT_TICK_BUDGET = 10;
+    private static final String NBT_KEY = "SpongePregen";
+    private static final int SAVE_INTERVAL_TICKS = 200;
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    // How far ahead of the spiral chunks are prepared by parallel custom generators
+    private static final int PREPARE_AHEAD = 64;
+    private static final Map<UUID, WorldPregenerator> running = Maps.newHashMap();
+
+    private final WorldServer world;
+    private final int centerX;
+    private final int centerZ;
+    private final int radius;
+    private final int tickBudget;
+    private final long total;
+    private final Spiral spiral = new Spiral();
+    private final Spiral prepareSpiral = new Spiral();
+    private final Deque<Long> loadedChunks = new ArrayDeque<Long>();
+    @Nullable private Task task;
+    @Nullable private CommandSource source;
+    private long startIndex;
+    private long startTime;
+    private long lastReport;
+    private int ticks;
+
+    /**
+     * Gets the pregenerator that is running for the world, if any.
+     *
+     * @param world The world
+     * @return The running pregenerator
+     */
+    public static Optional<WorldPregenerator> getRunning(World world) {
+        return Optional.fromNullable(running.get(world.getUniqueId()));
+    }
+
+    /**
+     * Gets a pregenerator that continues from the progress stored in the
+     * level data of the world, if any.
+     *
+     * @param world The world
+     * @return The stored pregenerator
+     */
+    public static Optional<WorldPregenerator> getSaved(World world) {
+        NBTTagCompound root = ((IMixinWorldInfo) ((WorldServer) world).getWorldInfo()).getSpongeRootLevelNbt();
+        if (!root.hasKey(NBT_KEY, 10)) {
+            return Optional.absent();
+        }
+        NBTTagCompound nbt = root.getCompoundTag(NBT_KEY);
+        WorldPregenerator pregenerator = new WorldPregenerator((WorldServer) world, nbt.getInteger("centerX"), nbt.getInteger("centerZ"),
+                nbt.getInteger("radius"), nbt.getInteger("tickBudget"));
+        long index = Math.min(nbt.getLong("index"), pregenerator.total);
+        while (pregenerator.spiral.index < index) {
+            pregenerator.spiral.advance();
+        }
+        return Optional.of(pregenerator);
+    }
+
+    /**
+     * Stops the pregenerator that is running for the world, if any. Called
+     * when the world is unloaded.
+     *
+     * @param world The world
+     */
+    public static void stopRunning(World world) {
+        WorldPregenerator pregenerator = running.get(world.getUniqueId());
+        if (pregenerator != null && pregenerator.world == world) {
+            pregenerator.stop();
+        }
+    }
+
+    /**
+     * Removes the progress stored in the level data of the world.
+     *
+     * @param world The world
+     * @return Whether there was any progress stored
+     */
+    public static boolean clearSaved(World world) {
+        NBTTagCompound root = ((IMixinWorldInfo) ((WorldServer) world).getWorldInfo()).getSpongeRootLevelNbt();
+        boolean saved = root.hasKey(NBT_KEY);
+        root.removeTag(NBT_KEY);
+        return saved;
+    }
+
+    /**
+     * Creates a pregenerator around the spawn point of the world.
+     *
+     * @param world The world
+     * @param radius The radius in chunks
+     * @param tickBudget The time to spend every tick in milliseconds
+     */
+    public WorldPregenerator(World world, int radius, int tickBudget) {
+        this((WorldServer) world, ((WorldServer) world).getSpawnPoint().getX() >> 4, ((WorldServer) world).getSpawnPoint().getZ() >> 4, radius,
+                tickBudget);
+    }
+
+    private WorldPregenerator(WorldServer world, int centerX, int centerZ, int radius, int tickBudget) {
+        checkArgument(radius >= 0, "radius must not be negative");
+        checkArgument(tickBudget > 0, "tickBudget must be positive");
+        this.world = world;
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        this.tickBudget = tickBudget;
+        this.total = (2L * radius + 1) * (2L * radius + 1);
+    }
+
+    /**
+     * Starts running this pregenerator every tick.
+     *
+     * @param source The source to report the progress to
+     */
+    public void start(@Nullable CommandSource source) {
+        UUID id = ((World) this.world).getUniqueId();
+        checkState(this.task == null && !running.containsKey(id), "A pregenerator is already running for this world");
+        this.source = source;
+        this.startIndex = this.spiral.index;
+        this.startTime = this.lastReport = System.nanoTime();
+        running.put(id, this);
+        saveProgress();
+        this.task = Sponge.getGame().getScheduler().createTaskBuilder()
+                .name("Sponge Pregenerator " + ((World) this.world).getName())
+                .execute(this)
+                .interval(1)
+                .submit(Sponge.getPlugin());
+    }
+
+    /**
+     * Stops this pregenerator, the stored progress is kept.
+     */
+    public void stop() {
+        if (this.task != null) {
+            this.task.cancel();
+            this.task = null;
+        }
+        running.remove(((World) this.world).getUniqueId());
+        saveProgress();
+        unloadChunks(0);
+    }
+
+    /**
+     * Stops this pregenerator and removes the stored progress.
+     */
+    public void cancel() {
+        stop();
+        clearSaved((World) this.world);
+    }
+
+    @Override
+    public void run() {
+        if (DimensionManager.getWorldFromDimId(this.world.provider.getDimensionId()) != this.world) {
+            // The world was unloaded without stopping this pregenerator
+            stop();
+            return;
+        }
+        final ChunkProviderServer provider = this.world.theChunkProviderServer;
+        final long start = System.nanoTime();
+        final long budget = TimeUnit.MILLISECONDS.toNanos(this.tickBudget);
+        prepareChunks(provider);
+        while (this.spiral.index < this.total && System.nanoTime() - start < budget) {
+            final int chunkX = this.centerX + this.spiral.x;
+            final int chunkZ = this.centerZ + this.spiral.z;
+            if (!provider.chunkExists(chunkX, chunkZ)) {
+                provider.loadChunk(chunkX, chunkZ);
+                this.loadedChunks.add(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ));
+            }
+            // The neighbours of the chunks of the previous ring must stay
+            // loaded for them to be populated
+            unloadChunks(16 * this.spiral.getRing() + 16);
+            this.spiral.advance();
+        }
+
+        if (this.spiral.index >= this.total) {
+            report("Finished pregenerating");
+            cancel();
+            return;
+        }
+        if (++this.ticks % SAVE_INTERVAL_TICKS == 0) {
+            saveProgress();
+        }
+        if (System.nanoTime() - this.lastReport >= REPORT_INTERVAL_NANOS) {
+            this.lastReport = System.nanoTime();
+            report("Pregenerating");
+        }
+    }
+
+    private void prepareChunks(ChunkProviderServer provider) {
+        if (!(provider.serverChunkGenerator instanceof CustomChunkProviderGenerate)
+                || !((CustomChunkProviderGenerate) provider.serverChunkGenerator).isParallel()) {
+            return;
+        }
+        final CustomChunkProviderGenerate generator = (CustomChunkProviderGenerate) provider.serverChunkGenerator;
+        final File directory = this.world.getSaveHandler().getWorldDirectory();
+        if (this.prepareSpiral.index < this.spiral.index) {
+            this.prepareSpiral.set(this.spiral);
+        }
+        while (this.prepareSpiral.index < this.total && this.prepareSpiral.index < this.spiral.index + PREPARE_AHEAD) {
+            final int chunkX = this.centerX + this.prepareSpiral.x;
+            final int chunkZ = this.centerZ + this.prepareSpiral.z;
+            // Chunks that are loaded or saved won't be generated
+            if (!provider.chunkExists(chunkX, chunkZ)
+                    && !RegionFileCache.createOrLoadRegionFile(directory, chunkX, chunkZ).isChunkSaved(chunkX & 31, chunkZ & 31)
+                    && !generator.prepareChunk(chunkX, chunkZ)) {
+                break;
+            }
+            this.prepareSpiral.advance();
+        }
+    }
+
+    private void unloadChunks(int keep) {
+        while (this.loadedChunks.size() > keep) {
+            final long chunk = this.loadedChunks.poll();
+            this.world.theChunkProviderServer.dropChunk((int) chunk, (int) (chunk >> 32));
+        }
+    }
+
+    private void saveProgress() {
+        NBTTagCompound nbt = new NBTTagCompound();
+        nbt.setInteger("centerX", this.centerX);
+        nbt.setInteger("centerZ", this.centerZ);
+        nbt.setInteger("radius", this.radius);
+        nbt.setInteger("tickBudget", this.tickBudget);
+        nbt.setLong("index", this.spiral.index);
+        ((IMixinWorldInfo) this.world.getWorldInfo()).getSpongeRootLevelNbt().setTag(NBT_KEY, nbt);
+    }
+
+    private void report(String action) {
+        String message = action + " " + ((World) this.world).getName() + ": " + getStatus();
+        Sponge.getLogger().info(message);
+        if (this.source != null) {
+            this.source.sendMessage(Texts.of(message));
+        }
+    }
+
+    /**
+     * Gets a description of the progress and speed of this pregenerator.
+     *
+     * @return The status
+     */
+    public String getStatus() {
+        double seconds = (System.nanoTime() - this.startTime) / 1.0E9;
+        double rate = seconds <= 0 ? 0 : (this.spiral.index - this.startIndex) / seconds;
+        return String.format("%d/%d chunks (%.1f%%) around chunk %d, %d with radius %d, %.1f chunks/s", this.spiral.index, this.total,
+                this.spiral.index * 100.0 / this.total, this.centerX, this.centerZ, this.radius, rate);
+    }
+
+    /**
+     * Square spiral around the origin, starting at the origin. The square
+     * with radius r is covered by the first (2r + 1)^2 positions.
+     */
+    private static final class Spiral {
+
+        long index;
+        int x;
+        int z;
+        private int dx = 1;
+        private int dz;
+        private int legLength = 1;
+        private int legProgress;
+        private int legs;
+
+        void advance() {
+            this.x += this.dx;
+            this.z += this.dz;
+            this.index++;
+            if (++this.legProgress == this.legLength) {
+                this.legProgress = 0;
+                int turn = this.dx;
+                this.dx = -this.dz;
+                this.dz = turn;
+                if (++this.legs % 2 == 0) {
+                    this.legLength++;
+                }
+            }
+        }
+
+        int getRing() {
+            return Math.max(Math.abs(this.x), Math.abs(this.z));
+        }
+
+        void set(Spiral other) {
+            this.index = other.index;
+            this.x = other.x;
+            this.z = other.z;
+            this.dx = other.dx;
+            this.dz = other.dz;
+            this.legLength = other.legLength;
+            this.legProgress = other.legProgress;
+            this.legs = other.legs;
+        }
+
+    }
+
+}
@@ -27,9 +27,19 @@
 import com.flowpowered.math.vector.Vector2i;
 import com.flowpowered.math.vector.Vector3i;
 import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldType;
 import net.minecraft.world.biome.BiomeGenBase;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
 import org.spongepowered.api.world.extent.BiomeArea;
 import org.spongepowered.api.world.extent.BlockVolume;
+import org.spongepowered.common.interfaces.IMixinBlockVolume;
+
+import javax.annotation.Nullable;
 
 public class ExtentBufferUtil {
 
@@ -58,6 +68,10 @@ public static short[] copyToArray(BlockVolume volume, Vector3i min, Vector3i max
             throw new OutOfMemoryError("Cannot copy the blocks to an array because the size limit was reached");
         }
         final short[] copy = new short[(int) memory];
+        if (volume instanceof IMixinBlockVolume) {
+            ((IMixinBlockVolume) volume).copyBlocksTo(min, max, copy, min, size);
+            return copy;
+        }
         int i = 0;
         for (int x = min.getX(); x <= max.getX(); x++) {
             for (int z = min.getZ(); z <= max.getZ(); z++) {
@@ -69,4 +83,102 @@ public static short[] copyToArray(BlockVolume volume, Vector3i min, Vector3i max
         return copy;
     }
 
+    /**
+     * Copies the block state ids of a region of the chunk into a buffer,
+     * reading the section arrays directly.
+     *
+     * @param chunk The chunk to copy from
+     * @param min The minimum block of the region, in world coordinates
+     * @param max The maximum block of the region, in world coordinates
+     * @param buffer The buffer to copy into
+     * @param bufferMin The position of the first block of the buffer
+     * @param bufferSize The size of the buffer
+     */
+    public static void copyChunkToArray(Chunk chunk, Vector3i min, Vector3i max, short[] buffer, Vector3i bufferMin, Vector3i bufferSize) {
+        final int yzSlice = bufferSize.getY() * bufferSize.getZ();
+        final int yLine = bufferSize.getY();
+        if (chunk.getWorld().getWorldType() == WorldType.DEBUG_WORLD) {
+            // The debug world computes its states from the position, the sections are empty
+            for (int x = min.getX(); x <= max.getX(); x++) {
+                for (int z = min.getZ(); z <= max.getZ(); z++) {
+                    int index = (x - bufferMin.getX()) * yzSlice + (z - bufferMin.getZ()) * yLine + (min.getY() - bufferMin.getY());
+                    for (int y = min.getY(); y <= max.getY(); y++) {
+                        buffer[index++] = (short) Block.BLOCK_STATE_IDS.get(chunk.getBlockState(new BlockPos(x, y, z)));
+                    }
+                }
+            }
+            return;
+        }
+        final ExtendedBlockStorage[] sections = chunk.getBlockStorageArray();
+        final int minSection = min.getY() >> 4;
+        final int maxSection = max.getY() >> 4;
+        for (int x = min.getX(); x <= max.getX(); x++) {
+            for (int z = min.getZ(); z <= max.getZ(); z++) {
+                final int column = (z & 15) << 4 | (x & 15);
+                int index = (x - bufferMin.getX()) * yzSlice + (z - bufferMin.getZ()) * yLine + (min.getY() - bufferMin.getY());
+                for (int section = minSection; section <= maxSection; section++) {
+                    final int fromY = Math.max(min.getY(), section << 4);
+                    final int toY = Math.min(max.getY(), (section << 4) + 15);
+                    final ExtendedBlockStorage storage = sections[section];
+                    if (storage == null) {
+                        // Missing sections are air, which has the id 0
+                        for (int y = fromY; y <= toY; y++) {
+                            buffer[index++] = 0;
+                        }
+                    } else {
+                        final char[] data = storage.getData();
+                        for (int y = fromY; y <= toY; y++) {
+                            buffer[index++] = (short) data[(y & 15) << 8 | column];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the blocks of a region of the chunk from the block state ids of a
+     * buffer. The current ids are read from the section arrays and only the
+     * blocks that differ are set, through the world when one is given so
+     * that neighbours and clients are notified, otherwise on the chunk.
+     *
+     * @param chunk The chunk to copy to
+     * @param world The world to set the blocks through, if any
+     * @param min The minimum block of the region, in world coordinates
+     * @param max The maximum block of the region, in world coordinates
+     * @param buffer The buffer to copy from
+     * @param bufferMin The position of the first block of the buffer
+     * @param bufferSize The size of the buffer
+     */
+    public static void copyArrayToChunk(Chunk chunk, @Nullable World world, Vector3i min, Vector3i max, short[] buffer, Vector3i bufferMin,
+            Vector3i bufferSize) {
+        final int yzSlice = bufferSize.getY() * bufferSize.getZ();
+        final int yLine = bufferSize.getY();
+        final boolean debugWorld = chunk.getWorld().getWorldType() == WorldType.DEBUG_WORLD;
+        for (int x = min.getX(); x <= max.getX(); x++) {
+            for (int z = min.getZ(); z <= max.getZ(); z++) {
+                final int column = (z & 15) << 4 | (x & 15);
+                int index = (x - bufferMin.getX()) * yzSlice + (z - bufferMin.getZ()) * yLine + (min.getY() - bufferMin.getY());
+                for (int y = min.getY(); y <= max.getY(); y++) {
+                    final int id = buffer[index++] & 0xFFFF;
+                    // Sections are looked up every block, setting one may create the section
+                    final ExtendedBlockStorage storage = debugWorld ? null : chunk.getBlockStorageArray()[y >> 4];
+                    final int current = storage == null ? 0 : storage.getData()[(y & 15) << 8 | column];
+                    if (id == current && !debugWorld) {
+                        continue;
+                    }
+                    IBlockState state = (IBlockState) Block.BLOCK_STATE_IDS.getByValue(id);
+                    if (state == null) {
+                        state = Blocks.air.getDefaultState();
+                    }
+                    if (world == null) {
+                        chunk.setBlockState(new BlockPos(x, y, z), state);
+                    } else {
+                        world.setBlockState(new BlockPos(x, y, z), state);
+                    }
+                }
+            }
+        }
+    }
+
 }
@@ -29,6 +29,8 @@
 import org.spongepowered.api.world.extent.ExtentBufferFactory;
 import org.spongepowered.api.world.extent.MutableBiomeArea;
 import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.common.util.gen.AtomicByteArrayMutableBiomeBuffer;
+import org.spongepowered.common.util.gen.AtomicShortArrayMutableBlockBuffer;
 import org.spongepowered.common.util.gen.ByteArrayMutableBiomeBuffer;
 import org.spongepowered.common.util.gen.ShortArrayMutableBlockBuffer;
 
@@ -51,12 +53,12 @@ public MutableBiomeArea createBiomeBuffer(int xSize, int zSize) {
 
     @Override
     public MutableBiomeArea createThreadSafeBiomeBuffer(Vector2i size) {
-        throw new UnsupportedOperationException();
+        return new AtomicByteArrayMutableBiomeBuffer(Vector2i.ZERO, size);
     }
 
     @Override
     public MutableBiomeArea createThreadSafeBiomeBuffer(int xSize, int zSize) {
-        throw new UnsupportedOperationException();
+        return createThreadSafeBiomeBuffer(new Vector2i(xSize, zSize));
     }
 
     @Override
@@ -71,12 +73,12 @@ public MutableBlockVolume createBlockBuffer(int xSize, int ySize, int zSize) {
 
     @Override
     public MutableBlockVolume createThreadSafeBlockBuffer(Vector3i size) {
-        throw new UnsupportedOperationException();
+        return new AtomicShortArrayMutableBlockBuffer(Vector3i.ZERO, size);
     }
 
     @Override
     public MutableBlockVolume createThreadSafeBlockBuffer(int xSize, int ySize, int zSize) {
-        throw new UnsupportedOperationException();
+        return createThreadSafeBlockBuffer(new Vector3i(xSize, ySize, zSize));
     }
 
 }
@@ -27,10 +27,13 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.flowpowered.math.vector.Vector2i;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import net.minecraft.block.BlockFalling;
 import net.minecraft.entity.EnumCreatureType;
 import net.minecraft.util.BlockPos;
 import net.minecraft.util.IProgressUpdate;
+import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.BiomeGenBase;
 import net.minecraft.world.biome.BiomeGenBase.SpawnListEntry;
@@ -42,25 +45,49 @@
 import org.spongepowered.api.world.extent.MutableBlockVolume;
 import org.spongepowered.api.world.gen.BiomeGenerator;
 import org.spongepowered.api.world.gen.GeneratorPopulator;
+import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.util.gen.ByteArrayMutableBiomeBuffer;
 import org.spongepowered.common.util.gen.ChunkPrimerBuffer;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
 
 /**
  * Similar class to {@link ChunkProviderGenerate}, but instead gets its blocks
  * from a custom chunk generator.
+ *
+ * <p>When parallel generation is enabled in the world config, the biomes and
+ * the block buffer of chunks can be prepared ahead of time on worker threads
+ * using {@link #prepareChunk(int, int)}. The chunk itself is still assembled
+ * and lit by {@link #provideChunk(int, int)} on the calling thread. Worlds
+ * using a vanilla biome generator never prepare chunks in parallel, as the
+ * vanilla biome layers are not thread safe.</p>
  */
 public final class CustomChunkProviderGenerate implements IChunkProvider {
 
     private static final Vector2i CHUNK_AREA = new Vector2i(16, 16);
+    private static final int MAX_PREPARED_CHUNKS_PER_THREAD = 16;
+    private static final long PREPARED_CHUNK_TIMEOUT = TimeUnit.SECONDS.toNanos(60);
 
     private final BiomeGenerator biomeGenerator;
     private final GeneratorPopulator baseGenerator;
     private final List<GeneratorPopulator> generatorPopulators;
     private final World world;
-    private final ByteArrayMutableBiomeBuffer cachedBiomes;
+    private final ConcurrentMap<Long, PreparedChunkTask> preparedChunks = new ConcurrentHashMap<Long, PreparedChunkTask>();
+    @Nullable private final ThreadPoolExecutor executor;
+    private final int maxPreparedChunks;
 
     /**
      * Gets the chunk generator from the given generator populator and biome
@@ -91,9 +118,20 @@ private CustomChunkProviderGenerate(World world, BiomeGenerator biomeGenerator,
         this.biomeGenerator = checkNotNull(biomeGenerator, "biomeGenerator");
         this.generatorPopulators = checkNotNull(generatorPopulators, "generatorPopulators");
 
-        // Make initially empty biome cache
-        this.cachedBiomes = new ByteArrayMutableBiomeBuffer(Vector2i.ZERO, CHUNK_AREA);
-        this.cachedBiomes.detach();
+        int threads = SpongeHooks.getActiveConfig(world).getConfig().getWorld().getParallelGenerationThreads();
+        if (threads > 0 && biomeGenerator instanceof SpongeBiomeGenerator) {
+            SpongeHooks.logWarning("Parallel generation is disabled for world {0}, as its vanilla biome generator is not thread safe",
+                    world.getWorldInfo().getWorldName());
+            threads = 0;
+        }
+        if (threads > 0) {
+            this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                    new ThreadFactoryBuilder().setNameFormat("Sponge Chunk Generation Thread #%d").setDaemon(true).build());
+            this.executor.allowCoreThreadTimeOut(true);
+        } else {
+            this.executor = null;
+        }
+        this.maxPreparedChunks = threads * MAX_PREPARED_CHUNKS_PER_THREAD;
     }
 
     public GeneratorPopulator getBaseGenerator() {
@@ -136,17 +174,125 @@ public void recreateStructures(Chunk chunk, int chunkX, int chunkZ) {
         // No structure support
     }
 
+    /**
+     * Gets whether chunks can be prepared on worker threads.
+     *
+     * @return Whether parallel generation is enabled
+     */
+    public boolean isParallel() {
+        return this.executor != null;
+    }
+
+    /**
+     * Starts generating the biomes and blocks of the chunk on a worker
+     * thread, to be picked up by the next {@link #provideChunk(int, int)}
+     * call for the chunk. Only chunks that are about to be provided should be
+     * prepared, as they are held until then.
+     *
+     * @param chunkX The x coordinate of the chunk
+     * @param chunkZ The z coordinate of the chunk
+     * @return False if parallel generation is disabled or too many chunks
+     *         are waiting to be provided
+     */
+    public boolean prepareChunk(final int chunkX, final int chunkZ) {
+        if (this.executor == null) {
+            return false;
+        }
+        if (this.preparedChunks.size() >= this.maxPreparedChunks) {
+            expirePreparedChunks();
+            if (this.preparedChunks.size() >= this.maxPreparedChunks) {
+                return false;
+            }
+        }
+        PreparedChunkTask task = new PreparedChunkTask(new Callable<PreparedChunk>() {
+
+            @Override
+            public PreparedChunk call() throws Exception {
+                return generateChunk(chunkX, chunkZ);
+            }
+
+        });
+        if (this.preparedChunks.putIfAbsent(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ), task) == null) {
+            this.executor.execute(task);
+        }
+        return true;
+    }
+
+    // Drops chunks that were prepared but never provided, for example the
+    // look ahead of a cancelled pregeneration
+    private void expirePreparedChunks() {
+        long now = System.nanoTime();
+        Iterator<PreparedChunkTask> iterator = this.preparedChunks.values().iterator();
+        while (iterator.hasNext()) {
+            PreparedChunkTask task = iterator.next();
+            if (now - task.created > PREPARED_CHUNK_TIMEOUT) {
+                task.cancel(false);
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Stops the worker threads and discards all prepared chunks. Called when
+     * the world is unloaded.
+     */
+    public void shutdown() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+        for (PreparedChunkTask task : this.preparedChunks.values()) {
+            task.cancel(false);
+        }
+        this.preparedChunks.clear();
+    }
+
+    /**
+     * Gets the number of chunks that were prepared, or are being prepared,
+     * and are waiting to be provided.
+     *
+     * @return The number of prepared chunks
+     */
+    public int getPreparedChunkCount() {
+        return this.preparedChunks.size();
+    }
+
     @Override
     public Chunk provideChunk(int chunkX, int chunkZ) {
+        PreparedChunk prepared = null;
+        PreparedChunkTask future = this.preparedChunks.remove(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ));
+        if (future != null) {
+            try {
+                prepared = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (CancellationException e) {
+                // Generate it here instead
+            } catch (ExecutionException e) {
+                throw Throwables.propagate(e.getCause());
+            }
+        }
+        if (prepared == null) {
+            prepared = generateChunk(chunkX, chunkZ);
+        }
 
+        // Assemble chunk
+        Chunk chunk = new Chunk(this.world, prepared.primer, chunkX, chunkZ);
+        byte[] biomeArray = chunk.getBiomeArray();
+        System.arraycopy(prepared.biomes, 0, biomeArray, 0, biomeArray.length);
+        chunk.generateSkylightMap();
+
+        return chunk;
+    }
+
+    private PreparedChunk generateChunk(int chunkX, int chunkZ) {
         // Generate biomes
-        this.cachedBiomes.reuse(new Vector2i(chunkX << 4, chunkZ << 4));
-        this.biomeGenerator.generateBiomes(this.cachedBiomes);
+        ByteArrayMutableBiomeBuffer biomes = new ByteArrayMutableBiomeBuffer(new Vector2i(chunkX << 4, chunkZ << 4), CHUNK_AREA);
+        this.biomeGenerator.generateBiomes(biomes);
 
         // Generate base terrain
         ChunkPrimer chunkprimer = new ChunkPrimer();
         MutableBlockVolume blockBuffer = new ChunkPrimerBuffer(chunkprimer, chunkX, chunkZ);
-        ImmutableBiomeArea biomeBuffer = this.cachedBiomes.getImmutableBiomeCopy();
+        ImmutableBiomeArea biomeBuffer = biomes.getImmutableBiomeCopy();
         this.baseGenerator.populate((org.spongepowered.api.world.World) this.world, blockBuffer, biomeBuffer);
 
         // Apply the generator populators to complete the blockBuffer
@@ -154,13 +300,7 @@ public Chunk provideChunk(int chunkX, int chunkZ) {
             populator.populate((org.spongepowered.api.world.World) this.world, blockBuffer, biomeBuffer);
         }
 
-        // Assemble chunk
-        Chunk chunk = new Chunk(this.world, chunkprimer, chunkX, chunkZ);
-        byte[] biomeArray = chunk.getBiomeArray();
-        System.arraycopy(this.cachedBiomes.detach(), 0, biomeArray, 0, biomeArray.length);
-        chunk.generateSkylightMap();
-
-        return chunk;
+        return new PreparedChunk(chunkprimer, biomes.detach());
     }
 
     // Methods below are simply mirrors of the methods in ChunkProviderGenerate
@@ -204,4 +344,26 @@ public boolean chunkExists(int x, int z) {
         return true;
     }
 
+    private static final class PreparedChunk {
+
+        final ChunkPrimer primer;
+        final byte[] biomes;
+
+        PreparedChunk(ChunkPrimer primer, byte[] biomes) {
+            this.primer = primer;
+            this.biomes = biomes;
+        }
+
+    }
+
+    private static final class PreparedChunkTask extends FutureTask<PreparedChunk> {
+
+        final long created = System.nanoTime();
+
+        PreparedChunkTask(Callable<PreparedChunk> callable) {
+            super(callable);
+        }
+
+    }
+
 }
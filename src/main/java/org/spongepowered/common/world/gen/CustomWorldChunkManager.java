@@ -27,18 +27,21 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.flowpowered.math.vector.Vector2i;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
 import net.minecraft.util.BlockPos;
+import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.biome.BiomeGenBase;
 import net.minecraft.world.biome.WorldChunkManager;
 import net.minecraft.world.gen.layer.IntCache;
-import org.spongepowered.api.world.extent.MutableBiomeArea;
 import org.spongepowered.api.world.gen.BiomeGenerator;
 import org.spongepowered.common.util.gen.ByteArrayMutableBiomeBuffer;
-import org.spongepowered.common.util.gen.ObjectArrayMutableBiomeBuffer;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of {@link WorldChunkManager} (bad name for the class that is
@@ -47,13 +50,32 @@
  * <p>This class does the opposite of {@link SpongeBiomeGenerator}, that class
  * wraps a world chunk manager so that it is usable as a {@link BiomeGenerator}
  * .</p>
+ *
+ * <p>Like vanilla's biome cache, the generated biomes are cached per chunk
+ * sized region, so biome generators must give the same biomes for a position
+ * regardless of the area that is requested.</p>
  */
 public final class CustomWorldChunkManager extends WorldChunkManager {
 
-    private static final Vector2i CACHED_AREA_SIZE = new Vector2i(40, 40);
+    private static final Vector2i REGION_SIZE = new Vector2i(16, 16);
+    private static final int MAX_CACHED_REGIONS = 1024;
+    private static final int REGION_EXPIRY_SECONDS = 30;
 
-    private final ByteArrayMutableBiomeBuffer areaForGeneration = new ByteArrayMutableBiomeBuffer(Vector2i.ZERO, CACHED_AREA_SIZE);
     private final BiomeGenerator biomeGenerator;
+    private final LoadingCache<Long, byte[]> regionCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_REGIONS)
+            .expireAfterAccess(REGION_EXPIRY_SECONDS, TimeUnit.SECONDS)
+            .recordStats()
+            .build(new CacheLoader<Long, byte[]>() {
+                @Override
+                public byte[] load(Long key) throws Exception {
+                    long region = key;
+                    ByteArrayMutableBiomeBuffer buffer =
+                        new ByteArrayMutableBiomeBuffer(new Vector2i((int) region << 4, (int) (region >> 32) << 4), REGION_SIZE);
+                    CustomWorldChunkManager.this.biomeGenerator.generateBiomes(buffer);
+                    return buffer.detach();
+                }
+            });
 
     /**
      * Gets a world chunk manager based on the given biome generator.
@@ -83,6 +105,15 @@ public BiomeGenerator getBiomeGenerator() {
         return this.biomeGenerator;
     }
 
+    /**
+     * Gets the statistics of the region cache, which include the hit rate.
+     *
+     * @return The cache statistics
+     */
+    public CacheStats getCacheStats() {
+        return this.regionCache.stats();
+    }
+
     /**
      * Return a list of biomes for the specified blocks. Args: listToReuse, x,
      * y, width, length, cacheFlag (if false, don't check biomeCache to avoid
@@ -114,11 +145,9 @@ public BiomeGenBase[] getBiomesForGeneration(BiomeGenBase[] biomeArrayZoomedOut,
         int zSizeBlock = zSize * 4;
 
         // Get biomes
-        ByteArrayMutableBiomeBuffer buffer = getBiomeBuffer(xStartBlock, zStartBlock, xSizeBlock, zSizeBlock);
-        this.biomeGenerator.generateBiomes(buffer);
+        byte[] biomesForBlocks = getBiomeIds(xStartBlock, zStartBlock, xSizeBlock, zSizeBlock);
 
         // Downscale
-        byte[] biomesForBlocks = buffer.detach();
         BiomeGenBase[] biomeById = BiomeGenBase.getBiomeGenArray();
         for (int i = 0; i < biomeArrayZoomedOut.length; i++) {
             BiomeGenBase biome = biomeById[biomesForBlocks[i * 4] & 0xff];
@@ -128,15 +157,28 @@ public BiomeGenBase[] getBiomesForGeneration(BiomeGenBase[] biomeArrayZoomedOut,
         return biomeArrayZoomedOut;
     }
 
-    private ByteArrayMutableBiomeBuffer getBiomeBuffer(int xStart, int zStart, int xSize, int zSize) {
-        if (xSize == CACHED_AREA_SIZE.getX()
-            && zSize == CACHED_AREA_SIZE.getY()
-            && this.areaForGeneration.isDetached()) {
-            this.areaForGeneration.reuse(new Vector2i(xStart, zStart));
-            return this.areaForGeneration;
-        } else {
-            return new ByteArrayMutableBiomeBuffer(new Vector2i(xStart, zStart), new Vector2i(xSize, zSize));
+    /**
+     * Gets the biome ids of an area, in the layout of
+     * {@link ByteArrayMutableBiomeBuffer}, from the cached regions that
+     * overlap it.
+     */
+    private byte[] getBiomeIds(int xStart, int zStart, int xSize, int zSize) {
+        byte[] biomes = new byte[xSize * zSize];
+        int xEnd = xStart + xSize - 1;
+        int zEnd = zStart + zSize - 1;
+        for (int regionX = xStart >> 4; regionX <= xEnd >> 4; regionX++) {
+            for (int regionZ = zStart >> 4; regionZ <= zEnd >> 4; regionZ++) {
+                byte[] region = this.regionCache.getUnchecked(ChunkCoordIntPair.chunkXZ2Int(regionX, regionZ));
+                int xFrom = Math.max(xStart, regionX << 4);
+                int xTo = Math.min(xEnd, (regionX << 4) + 15);
+                int zFrom = Math.max(zStart, regionZ << 4);
+                int zTo = Math.min(zEnd, (regionZ << 4) + 15);
+                for (int z = zFrom; z <= zTo; z++) {
+                    System.arraycopy(region, (z & 15) << 4 | (xFrom & 15), biomes, (z - zStart) * xSize + (xFrom - xStart), xTo - xFrom + 1);
+                }
+            }
         }
+        return biomes;
     }
 
     @Override
@@ -145,9 +187,7 @@ public float[] getRainfall(float[] rainfallArray, int x, int z, int xSize, int z
             rainfallArray = new float[xSize * zSize];
         }
 
-        ByteArrayMutableBiomeBuffer buffer = getBiomeBuffer(x, z, xSize, zSize);
-        this.biomeGenerator.generateBiomes(buffer);
-        byte[] biomes = buffer.detach();
+        byte[] biomes = getBiomeIds(x, z, xSize, zSize);
         BiomeGenBase[] biomeById = BiomeGenBase.getBiomeGenArray();
 
         for (int i = 0; i < xSize * zSize; i++) {
@@ -174,9 +214,7 @@ public BlockPos findBiomePosition(int xCenter, int zCenter, int range, @Suppress
         int xSizeSegments = xMaxSegment - xStartSegment + 1;
         int zSizeSegments = zMaxSegment - zStartSegment + 1;
 
-        ByteArrayMutableBiomeBuffer buffer = getBiomeBuffer(xStartSegment << 2, zStartSegment << 2, xSizeSegments << 2, zSizeSegments << 2);
-        this.biomeGenerator.generateBiomes(buffer);
-        byte[] biomes = buffer.detach();
+        byte[] biomes = getBiomeIds(xStartSegment << 2, zStartSegment << 2, xSizeSegments << 2, zSizeSegments << 2);
 
         BlockPos blockpos = null;
         int foundPositions = 0;
@@ -205,9 +243,7 @@ public boolean areBiomesViable(int xCenter, int zCenter, int range, @SuppressWar
         int xSizeSegments = xMaxSegment - xStartSegment + 1;
         int zSizeSegments = zMaxSegment - zStartSegment + 1;
 
-        ByteArrayMutableBiomeBuffer buffer = getBiomeBuffer(xStartSegment << 2, zStartSegment << 2, xSizeSegments << 2, zSizeSegments << 2);
-        this.biomeGenerator.generateBiomes(buffer);
-        byte[] biomes = buffer.detach();
+        byte[] biomes = getBiomeIds(xStartSegment << 2, zStartSegment << 2, xSizeSegments << 2, zSizeSegments << 2);
 
         for (int i = 0; i < xSizeSegments * zSizeSegments; ++i) {
             BiomeGenBase biomegenbase = BiomeGenBase.getBiome(biomes[i << 2] & 0xff);
@@ -224,16 +260,16 @@ public boolean areBiomesViable(int xCenter, int zCenter, int range, @SuppressWar
     public BiomeGenBase[] loadBlockGeneratorData(BiomeGenBase[] biomeArray, int startX, int startZ, int sizeX, int sizeZ) {
         if (biomeArray == null || biomeArray.length < sizeX * sizeZ) {
             biomeArray = new BiomeGenBase[sizeX * sizeZ];
-        } else {
-            // Biome generators don't have to set every position. If we set
-            // all positions to ocean first, every position not set will be
-            // ocean, and not some random biome from the last time this array
-            // was used
-            Arrays.fill(biomeArray, BiomeGenBase.ocean);
         }
 
-        MutableBiomeArea biomeArea = new ObjectArrayMutableBiomeBuffer(biomeArray, new Vector2i(startX, startZ), new Vector2i(sizeX, sizeZ));
-        this.biomeGenerator.generateBiomes(biomeArea);
+        // Biome generators don't have to set every position, those left at
+        // id 0 become ocean
+        byte[] biomes = getBiomeIds(startX, startZ, sizeX, sizeZ);
+        BiomeGenBase[] biomeById = BiomeGenBase.getBiomeGenArray();
+        for (int i = 0; i < sizeX * sizeZ; i++) {
+            BiomeGenBase biome = biomeById[biomes[i] & 0xff];
+            biomeArray[i] = biome == null ? BiomeGenBase.ocean : biome;
+        }
 
         return biomeArray;
     }
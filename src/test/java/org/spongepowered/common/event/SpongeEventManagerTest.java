@@ -0,0 +1,305 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import net.minecraft.server.MinecraftServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.EventListener;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+public class SpongeEventManagerTest {
+
+    private final Object plugin = new Object();
+    private SpongeEventManager eventManager;
+
+    @After
+    public void tearDown() throws Exception {
+        setServer(null);
+    }
+
+    private static void setServer(@Nullable MinecraftServer server) throws Exception {
+        for (Field field : MinecraftServer.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == MinecraftServer.class) {
+                field.setAccessible(true);
+                field.set(null, server);
+            }
+        }
+    }
+
+    @Before
+    public void setUp() {
+        PluginContainer container = Mockito.mock(PluginContainer.class);
+        PluginManager pluginManager = Mockito.mock(PluginManager.class);
+        Mockito.when(pluginManager.fromInstance(this.plugin)).thenReturn(Optional.of(container));
+        this.eventManager = new SpongeEventManager(pluginManager);
+    }
+
+    @Test
+    public void testRegisterAfterBake() {
+        TestEvent event = Mockito.mock(TestEvent.class);
+        assertEquals(0, this.eventManager.getHandlerCache(event).getListeners().size());
+
+        CountingListener<Event> general = new CountingListener<Event>();
+        CountingListener<TestEvent> specific = new CountingListener<TestEvent>();
+        this.eventManager.registerListener(this.plugin, TestEvent.class, Order.LATE, specific);
+        this.eventManager.registerListener(this.plugin, Event.class, Order.EARLY, general);
+
+        List<RegisteredListener<?>> listeners = this.eventManager.getHandlerCache(event).getListeners();
+        assertEquals(2, listeners.size());
+        assertEquals(Order.EARLY, listeners.get(0).getOrder());
+        assertEquals(Order.LATE, listeners.get(1).getOrder());
+
+        assertFalse(this.eventManager.post(event));
+        assertEquals(1, general.count);
+        assertEquals(1, specific.count);
+    }
+
+    @Test
+    public void testSameOrderAfterBake() {
+        TestEvent event = Mockito.mock(TestEvent.class);
+        assertEquals(0, this.eventManager.getHandlerCache(event).getListeners().size());
+
+        CountingListener<Event> general = new CountingListener<Event>();
+        CountingListener<TestEvent> specific = new CountingListener<TestEvent>();
+        this.eventManager.registerListener(this.plugin, Event.class, general);
+        this.eventManager.registerListener(this.plugin, TestEvent.class, specific);
+
+        // Must match the order of a fresh bake, exact type first
+        List<RegisteredListener<?>> listeners = this.eventManager.getHandlerCache(event).getListeners();
+        assertEquals(2, listeners.size());
+        assertEquals(specific, listeners.get(0).getHandle());
+        assertEquals(general, listeners.get(1).getHandle());
+    }
+
+    @Test
+    public void testUnrelatedTypesUntouched() {
+        TestEvent event = Mockito.mock(TestEvent.class);
+        OtherEvent other = Mockito.mock(OtherEvent.class);
+        RegisteredListener.Cache otherCache = this.eventManager.getHandlerCache(other);
+
+        this.eventManager.registerListener(this.plugin, TestEvent.class, new CountingListener<TestEvent>());
+        assertEquals(1, this.eventManager.getHandlerCache(event).getListeners().size());
+        assertEquals(otherCache, this.eventManager.getHandlerCache(other));
+    }
+
+    @Test
+    public void testUnregister() {
+        TestEvent event = Mockito.mock(TestEvent.class);
+        CountingListener<TestEvent> listener = new CountingListener<TestEvent>();
+        this.eventManager.registerListener(this.plugin, TestEvent.class, listener);
+        this.eventManager.post(event);
+
+        this.eventManager.unregisterListeners(listener);
+        assertEquals(0, this.eventManager.getHandlerCache(event).getListeners().size());
+        this.eventManager.post(event);
+        assertEquals(1, listener.count);
+    }
+
+    @Test
+    public void testHasListeners() {
+        assertFalse(this.eventManager.hasListeners(TestEvent.class));
+
+        CountingListener<Event> listener = new CountingListener<Event>();
+        this.eventManager.registerListener(this.plugin, Event.class, listener);
+        assertTrue(this.eventManager.hasListeners(TestEvent.class));
+
+        this.eventManager.unregisterListeners(listener);
+        assertFalse(this.eventManager.hasListeners(TestEvent.class));
+    }
+
+    @Test
+    public void testPostAsync() throws Exception {
+        MainThread mainThread = new MainThread(true);
+        TestEvent event = Mockito.mock(TestEvent.class);
+        List<EventListener<?>> calls = new CopyOnWriteArrayList<EventListener<?>>();
+        CountingListener<TestEvent> first = new CountingListener<TestEvent>(calls);
+        CountingListener<TestEvent> last = new CountingListener<TestEvent>(calls);
+        AsyncSafeListener<TestEvent> asyncSafe = new AsyncSafeListener<TestEvent>(calls);
+        this.eventManager.registerListener(this.plugin, TestEvent.class, Order.LAST, last);
+        this.eventManager.registerListener(this.plugin, TestEvent.class, Order.DEFAULT, asyncSafe);
+        this.eventManager.registerListener(this.plugin, TestEvent.class, Order.FIRST, first);
+
+        assertFalse(this.eventManager.postAsync(event).get());
+        assertEquals(Arrays.<EventListener<?>>asList(first, asyncSafe, last), calls);
+        assertTrue(this.eventManager.getHandlerCache(event).getListeners().get(1).isAsyncSafe());
+        assertSame(mainThread.thread, first.thread);
+        assertSame(mainThread.thread, last.thread);
+        assertNotSame(Thread.currentThread(), asyncSafe.thread);
+        assertNotSame(mainThread.thread, asyncSafe.thread);
+    }
+
+    @Test
+    public void testPostAsyncTimeout() throws Exception {
+        MainThread mainThread = new MainThread(false);
+        TestEvent event = Mockito.mock(TestEvent.class);
+        CountingListener<TestEvent> first = new CountingListener<TestEvent>();
+        CountingListener<TestEvent> last = new CountingListener<TestEvent>();
+        this.eventManager.registerListener(this.plugin, TestEvent.class, Order.FIRST, first);
+        this.eventManager.registerListener(this.plugin, TestEvent.class, Order.LAST, last);
+
+        List<RegisteredListener<?>> listeners = this.eventManager.getHandlerCache(event).getListeners();
+        assertFalse(SpongeEventManager.postAsync(event, listeners, 10, TimeUnit.MILLISECONDS));
+
+        // The main thread catching up later must not call the listener
+        // the async thread gave up on, nor any of the following ones
+        assertEquals(1, mainThread.tasks.size());
+        assertTrue(mainThread.tasks.get(0).isCancelled());
+        mainThread.tasks.get(0).run();
+        assertEquals(0, first.count);
+        assertEquals(0, last.count);
+    }
+
+    @Test
+    public void testPluginAsyncSafeAnnotation() {
+        assertTrue(SpongeEventManager.isAsyncSafe(AsyncSafeListener.class));
+        assertTrue(SpongeEventManager.isAsyncSafe(PluginAsyncSafeListener.class));
+        assertFalse(SpongeEventManager.isAsyncSafe(CountingListener.class));
+    }
+
+    public interface TestEvent extends Event {
+
+    }
+
+    public interface OtherEvent extends Event {
+
+    }
+
+    private static class CountingListener<T extends Event> implements EventListener<T> {
+
+        private final List<EventListener<?>> calls;
+        volatile int count;
+        volatile Thread thread;
+
+        CountingListener() {
+            this(new ArrayList<EventListener<?>>());
+        }
+
+        CountingListener(List<EventListener<?>> calls) {
+            this.calls = calls;
+        }
+
+        @Override
+        public void handle(T event) throws Exception {
+            this.count++;
+            this.thread = Thread.currentThread();
+            this.calls.add(this);
+        }
+
+    }
+
+    /**
+     * A mocked server whose main thread runs the scheduled tasks, or keeps
+     * them queued.
+     */
+    private static final class MainThread {
+
+        final List<ListenableFutureTask<Object>> tasks = new CopyOnWriteArrayList<ListenableFutureTask<Object>>();
+        volatile Thread thread;
+
+        MainThread(final boolean run) throws Exception {
+            final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "Server thread");
+                    thread.setDaemon(true);
+                    MainThread.this.thread = thread;
+                    return thread;
+                }
+            });
+            MinecraftServer server = Mockito.mock(MinecraftServer.class);
+            Mockito.when(server.isServerRunning()).thenReturn(true);
+            Mockito.doAnswer(new Answer<Object>() {
+
+                @Override
+                public Object answer(InvocationOnMock invocation) throws Throwable {
+                    ListenableFutureTask<Object> task = ListenableFutureTask.create((Runnable) invocation.getArguments()[0], null);
+                    MainThread.this.tasks.add(task);
+                    if (run) {
+                        executor.execute(task);
+                    }
+                    return task;
+                }
+            }).when(server).addScheduledTask(Mockito.any(Runnable.class));
+            setServer(server);
+        }
+
+    }
+
+    @AsyncSafe
+    private static final class AsyncSafeListener<T extends Event> extends CountingListener<T> {
+
+        AsyncSafeListener(List<EventListener<?>> calls) {
+            super(calls);
+        }
+
+    }
+
+    @PluginAnnotations.AsyncSafe
+    private static final class PluginAsyncSafeListener<T extends Event> extends CountingListener<T> {
+
+    }
+
+    private static final class PluginAnnotations {
+
+        @Retention(RetentionPolicy.RUNTIME)
+        @interface AsyncSafe {
+
+        }
+
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.permission.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.spongepowered.api.service.permission.SubjectData.GLOBAL_CONTEXT;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Multiset;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.api.service.permission.MemorySubjectData;
+import org.spongepowered.api.service.permission.PermissionService;
+import org.spongepowered.api.service.permission.SubjectCollection;
+import org.spongepowered.api.service.permission.context.Context;
+import org.spongepowered.api.util.Tristate;
+import org.spongepowered.api.util.command.CommandSource;
+
+import java.util.Set;
+
+public class SpongeSubjectTest {
+
+    private static final String PERMISSION = "test.permission";
+
+    private PermissionService service;
+    private SubjectCollection collection;
+
+    @Before
+    public void setUp() {
+        this.service = Mockito.mock(PermissionService.class);
+        this.collection = Mockito.mock(SubjectCollection.class);
+        Mockito.when(this.collection.getIdentifier()).thenReturn("test");
+        Mockito.when(this.service.getSubjects("test")).thenReturn(this.collection);
+    }
+
+    private TestSubject subject(String identifier, MemorySubjectData data) {
+        TestSubject subject = new TestSubject(identifier, data, this.collection);
+        Mockito.when(this.collection.get(identifier)).thenReturn(subject);
+        return subject;
+    }
+
+    @Test
+    public void testDataChangesInvalidateParentAndChild() {
+        TestSubject parent = subject("parent", new GlobalMemorySubjectData(this.service));
+        TestSubject child = subject("child", new GlobalMemorySubjectData(this.service));
+        child.getSubjectData().addParent(GLOBAL_CONTEXT, parent);
+        assertEquals(Tristate.UNDEFINED, child.getPermissionValue(GLOBAL_CONTEXT, PERMISSION));
+        assertEquals(Tristate.UNDEFINED, parent.getPermissionValue(GLOBAL_CONTEXT, PERMISSION));
+
+        // A change of the parent is seen by the child
+        parent.getSubjectData().setPermission(GLOBAL_CONTEXT, PERMISSION, Tristate.TRUE);
+        assertEquals(Tristate.TRUE, parent.getPermissionValue(GLOBAL_CONTEXT, PERMISSION));
+        assertEquals(Tristate.TRUE, child.getPermissionValue(GLOBAL_CONTEXT, PERMISSION));
+
+        child.getSubjectData().setPermission(GLOBAL_CONTEXT, PERMISSION, Tristate.FALSE);
+        assertEquals(Tristate.FALSE, child.getPermissionValue(GLOBAL_CONTEXT, PERMISSION));
+        assertEquals(Tristate.TRUE, parent.getPermissionValue(GLOBAL_CONTEXT, PERMISSION));
+
+        child.getSubjectData().clearPermissions();
+        assertEquals(Tristate.TRUE, child.getPermissionValue(GLOBAL_CONTEXT, PERMISSION));
+        child.getSubjectData().removeParent(GLOBAL_CONTEXT, parent);
+        assertEquals(Tristate.UNDEFINED, child.getPermissionValue(GLOBAL_CONTEXT, PERMISSION));
+
+        child.getSubjectData().addParent(GLOBAL_CONTEXT, parent);
+        parent.getSubjectData().clearPermissions(GLOBAL_CONTEXT);
+        assertEquals(Tristate.UNDEFINED, child.getPermissionValue(GLOBAL_CONTEXT, PERMISSION));
+    }
+
+    @Test
+    public void testSingleParentChangeInvalidatesChild() {
+        TestSubject parent = subject("parent", new GlobalMemorySubjectData(this.service));
+        parent.getSubjectData().setPermission(GLOBAL_CONTEXT, PERMISSION, Tristate.TRUE);
+        SingleParentMemorySubjectData data = new SingleParentMemorySubjectData(this.service);
+        TestSubject child = subject("child", data);
+        assertEquals(Tristate.UNDEFINED, child.getPermissionValue(GLOBAL_CONTEXT, PERMISSION));
+
+        data.setParent(parent);
+        assertEquals(Tristate.TRUE, child.getPermissionValue(GLOBAL_CONTEXT, PERMISSION));
+        data.setParent(null);
+        assertEquals(Tristate.UNDEFINED, child.getPermissionValue(GLOBAL_CONTEXT, PERMISSION));
+    }
+
+    @Test
+    public void testRecentlyUsedValuesStayCached() {
+        TestSubject subject = subject("subject", new GlobalMemorySubjectData(this.service));
+        for (int i = 0; i < 10000; i++) {
+            subject.getPermissionValue(GLOBAL_CONTEXT, PERMISSION);
+            subject.getPermissionValue(GLOBAL_CONTEXT, PERMISSION + ".generated" + i);
+        }
+        assertEquals(1, subject.resolved.count(PERMISSION));
+    }
+
+    private static final class TestSubject extends SpongeSubject {
+
+        final Multiset<String> resolved = ConcurrentHashMultiset.create();
+        private final String identifier;
+        private final MemorySubjectData data;
+        private final SubjectCollection collection;
+
+        TestSubject(String identifier, MemorySubjectData data, SubjectCollection collection) {
+            this.identifier = identifier;
+            this.data = data;
+            this.collection = collection;
+        }
+
+        @Override
+        public String getIdentifier() {
+            return this.identifier;
+        }
+
+        @Override
+        public Optional<CommandSource> getCommandSource() {
+            return Optional.absent();
+        }
+
+        @Override
+        public SubjectCollection getContainingCollection() {
+            return this.collection;
+        }
+
+        @Override
+        public MemorySubjectData getSubjectData() {
+            return this.data;
+        }
+
+        @Override
+        protected Tristate resolvePermissionValue(Set<Context> contexts, String permission) {
+            this.resolved.add(permission);
+            return super.resolvePermissionValue(contexts, permission);
+        }
+
+    }
+
+}
@@ -0,0 +1,354 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.profile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.mojang.authlib.Agent;
+import com.mojang.authlib.GameProfile;
+import com.mojang.authlib.GameProfileRepository;
+import com.mojang.authlib.ProfileLookupCallback;
+import com.mojang.authlib.minecraft.MinecraftSessionService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.spongepowered.api.service.profile.ProfileNotFoundException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ProfileLookupCacheTest {
+
+    private static final GameProfile NOTCH = new GameProfile(UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5"), "Notch");
+    private static final GameProfile JEB = new GameProfile(UUID.fromString("853c80ef-3c37-49fd-aa49-938b674adae6"), "jeb_");
+
+    private GameProfileRepository repository;
+    private MinecraftSessionService sessionService;
+    private ProfileLookupCache cache;
+
+    @Before
+    public void setUp() {
+        this.repository = mock(GameProfileRepository.class);
+        this.sessionService = mock(MinecraftSessionService.class);
+        this.cache = new ProfileLookupCache(this.repository, this.sessionService, null, new TokenBucket(1000, 1, TimeUnit.SECONDS), 1, 1,
+                TimeUnit.MINUTES);
+
+        when(this.sessionService.fillProfileProperties(any(GameProfile.class), anyBoolean())).thenAnswer(new Answer<GameProfile>() {
+
+            @Override
+            public GameProfile answer(InvocationOnMock invocation) throws Throwable {
+                GameProfile requested = (GameProfile) invocation.getArguments()[0];
+                return requested.getId().equals(NOTCH.getId()) ? NOTCH : requested;
+            }
+        });
+        doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                ProfileLookupCallback callback = (ProfileLookupCallback) invocation.getArguments()[2];
+                for (String name : (String[]) invocation.getArguments()[0]) {
+                    if (name.equalsIgnoreCase(JEB.getName())) {
+                        callback.onProfileLookupSucceeded(JEB);
+                    } else if (name.equals("offline")) {
+                        callback.onProfileLookupFailed(new GameProfile(null, name), new IOException("Connection refused"));
+                    } else {
+                        callback.onProfileLookupFailed(new GameProfile(null, name), new com.mojang.authlib.yggdrasil.ProfileNotFoundException());
+                    }
+                }
+                return null;
+            }
+        }).when(this.repository).findProfilesByNames(any(String[].class), any(Agent.class), any(ProfileLookupCallback.class));
+    }
+
+    @Test
+    public void testFoundProfileIsCached() throws Exception {
+        assertSame(NOTCH, this.cache.getById(NOTCH.getId(), true));
+        assertSame(NOTCH, this.cache.getById(NOTCH.getId(), true));
+        assertEquals(Lists.newArrayList(NOTCH), this.cache.getAllByName(Lists.newArrayList("notch"), true));
+
+        verify(this.sessionService, times(1)).fillProfileProperties(any(GameProfile.class), anyBoolean());
+        verifyZeroInteractions(this.repository);
+    }
+
+    @Test
+    public void testMissingIdIsNotCached() throws Exception {
+        // An unknown id can't be told apart from a failed request
+        UUID unknown = UUID.randomUUID();
+        for (int i = 0; i < 2; i++) {
+            try {
+                this.cache.getById(unknown, true);
+                fail("Unknown profile was found");
+            } catch (ProfileNotFoundException e) {
+                // Expected
+            }
+        }
+        verify(this.sessionService, times(2)).fillProfileProperties(any(GameProfile.class), anyBoolean());
+    }
+
+    @Test
+    public void testBypassCache() throws Exception {
+        this.cache.getById(NOTCH.getId(), true);
+        this.cache.getById(NOTCH.getId(), false);
+        verify(this.sessionService, times(2)).fillProfileProperties(any(GameProfile.class), anyBoolean());
+    }
+
+    @Test
+    public void testNamesAreBatched() throws Exception {
+        try {
+            this.cache.getAllByName(Lists.newArrayList("jeb_", "nobody"), true);
+            fail("Unknown profile was found");
+        } catch (ProfileNotFoundException e) {
+            // Expected
+        }
+        verify(this.repository, times(1)).findProfilesByNames(aryEq(new String[] {"jeb_", "nobody"}), any(Agent.class),
+                any(ProfileLookupCallback.class));
+
+        // Both the found and the missing name are cached now
+        assertEquals(Lists.newArrayList(JEB), this.cache.getAllByName(Lists.newArrayList("JEB_"), true));
+        try {
+            this.cache.getAllByName(Lists.newArrayList("nobody"), true);
+            fail("Unknown profile was found");
+        } catch (ProfileNotFoundException e) {
+            // Expected
+        }
+        verify(this.repository, times(1)).findProfilesByNames(any(String[].class), any(Agent.class), any(ProfileLookupCallback.class));
+    }
+
+    @Test
+    public void testFailedLookupIsNotCached() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            try {
+                this.cache.getAllByName(Lists.newArrayList("offline"), true);
+                fail("Failed lookup returned a profile");
+            } catch (ProfileNotFoundException e) {
+                // Expected
+            }
+        }
+        verify(this.repository, times(2)).findProfilesByNames(any(String[].class), any(Agent.class), any(ProfileLookupCallback.class));
+    }
+
+    @Test
+    public void testConcurrentLookupsAreCoalesced() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(new Answer<GameProfile>() {
+
+            @Override
+            public GameProfile answer(InvocationOnMock invocation) throws Throwable {
+                entered.countDown();
+                release.await();
+                return NOTCH;
+            }
+        }).when(this.sessionService).fillProfileProperties(any(GameProfile.class), anyBoolean());
+
+        final AtomicReference<List<GameProfile>> first = new AtomicReference<List<GameProfile>>();
+        Thread thread = new Thread() {
+
+            @Override
+            public void run() {
+                try {
+                    first.set(ProfileLookupCacheTest.this.cache.getAllById(Lists.newArrayList(NOTCH.getId()), true));
+                } catch (ProfileNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        thread.start();
+        entered.await();
+
+        // The second lookup waits for the first instead of making its own request
+        Thread releaser = new Thread() {
+
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    // Ignore
+                }
+                release.countDown();
+            }
+        };
+        releaser.start();
+        assertSame(NOTCH, this.cache.getById(NOTCH.getId(), true));
+        thread.join();
+
+        assertEquals(Lists.newArrayList(NOTCH), first.get());
+        verify(this.sessionService, times(1)).fillProfileProperties(any(GameProfile.class), anyBoolean());
+    }
+
+    @Test
+    public void testQueuedNamesAreBatchedAcrossThreads() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<List<String>> batches = new CopyOnWriteArrayList<List<String>>();
+        doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                List<String> batch = Lists.newArrayList((String[]) invocation.getArguments()[0]);
+                batches.add(batch);
+                if (batches.size() == 1) {
+                    entered.countDown();
+                    release.await();
+                }
+                ProfileLookupCallback callback = (ProfileLookupCallback) invocation.getArguments()[2];
+                for (String name : batch) {
+                    callback.onProfileLookupSucceeded(new GameProfile(UUID.randomUUID(), name));
+                }
+                return null;
+            }
+        }).when(this.repository).findProfilesByNames(any(String[].class), any(Agent.class), any(ProfileLookupCallback.class));
+
+        List<Thread> threads = Lists.newArrayList();
+        for (final String name : new String[] {"first", "second", "third"}) {
+            Thread thread = new Thread() {
+
+                @Override
+                public void run() {
+                    try {
+                        ProfileLookupCacheTest.this.cache.getAllByName(Lists.newArrayList(name), true);
+                    } catch (ProfileNotFoundException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            };
+            threads.add(thread);
+            thread.start();
+            if (threads.size() == 1) {
+                // Hold the first batch open while the other names queue up
+                entered.await();
+            }
+        }
+        while (this.cache.getQueuedNameCount() < 2) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(2, batches.size());
+        assertEquals(Lists.newArrayList("first"), batches.get(0));
+        assertEquals(Sets.newHashSet("second", "third"), Sets.newHashSet(batches.get(1)));
+    }
+
+    @Test
+    public void testTokenBucketLimitsRate() {
+        FakeTicker ticker = new FakeTicker();
+        TokenBucket bucket = new SleepingBucket(2, 200, ticker);
+        bucket.acquire();
+        bucket.acquire();
+        assertEquals(0, ticker.nanos);
+
+        // The bucket is empty, so the next token takes 100ms to refill
+        bucket.acquire();
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), ticker.nanos);
+
+        // Tokens refill while the bucket is not used, up to the capacity
+        ticker.nanos += TimeUnit.SECONDS.toNanos(10);
+        long before = ticker.nanos;
+        bucket.acquire(2);
+        assertEquals(before, ticker.nanos);
+    }
+
+    @Test
+    public void testRateLimitCountsRepositoryRequests() throws Exception {
+        FakeTicker ticker = new FakeTicker();
+        int requests = 3;
+        this.cache = new ProfileLookupCache(this.repository, this.sessionService, null, new SleepingBucket(requests, 1000, ticker), 1, 1,
+                TimeUnit.MINUTES);
+
+        // Split into three requests by the repository, which use up the bucket
+        List<String> names = Lists.newArrayList();
+        for (int i = 0; i < requests * ProfileLookupCache.NAMES_PER_REQUEST; i++) {
+            names.add("nobody" + i);
+        }
+        lookUpMissing(names);
+        assertEquals(0, ticker.nanos);
+
+        lookUpMissing(Lists.newArrayList("somebody"));
+        assertTrue(ticker.nanos > 0);
+    }
+
+    private void lookUpMissing(List<String> names) {
+        try {
+            this.cache.getAllByName(names, false);
+            fail("Unknown profile was found");
+        } catch (ProfileNotFoundException e) {
+            // Expected
+        }
+    }
+
+    private static final class FakeTicker extends Ticker {
+
+        long nanos;
+
+        @Override
+        public long read() {
+            return this.nanos;
+        }
+
+    }
+
+    // Advances the fake ticker instead of sleeping
+    private static final class SleepingBucket extends TokenBucket {
+
+        private final FakeTicker ticker;
+
+        SleepingBucket(int capacity, long periodMillis, FakeTicker ticker) {
+            super(capacity, periodMillis, TimeUnit.MILLISECONDS, ticker);
+            this.ticker = ticker;
+        }
+
+        @Override
+        void sleep(long nanos) {
+            this.ticker.nanos += nanos;
+        }
+
+    }
+
+}
@@ -0,0 +1,233 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.api.plugin.PluginContainer;
+
+public class SyncSchedulerTest {
+
+    private final PluginContainer plugin = Mockito.mock(PluginContainer.class);
+
+    private ScheduledTask schedule(SyncScheduler scheduler, Runnable runnable, long delay, long interval) {
+        ScheduledTask task = new ScheduledTask(ScheduledTask.TaskSynchronicity.SYNCHRONOUS, runnable, "test", delay, true, interval, true,
+                this.plugin);
+        scheduler.addTask(task);
+        return task;
+    }
+
+    private static void tick(SyncScheduler scheduler, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            scheduler.tick();
+        }
+    }
+
+    @Test
+    public void testDelay() {
+        SyncScheduler scheduler = new SyncScheduler();
+        CountingRunnable runnable = new CountingRunnable();
+        schedule(scheduler, runnable, 5, 0);
+
+        tick(scheduler, 4);
+        assertEquals(0, runnable.count);
+        tick(scheduler, 1);
+        assertEquals(1, runnable.count);
+        tick(scheduler, 20);
+        assertEquals(1, runnable.count);
+        assertEquals(0, scheduler.getScheduledTasks().size());
+    }
+
+    @Test
+    public void testDelayBeyondWheel() {
+        SyncScheduler scheduler = new SyncScheduler();
+        CountingRunnable runnable = new CountingRunnable();
+        schedule(scheduler, runnable, 1000, 0);
+
+        tick(scheduler, 999);
+        assertEquals(0, runnable.count);
+        tick(scheduler, 1);
+        assertEquals(1, runnable.count);
+    }
+
+    @Test
+    public void testInterval() {
+        SyncScheduler scheduler = new SyncScheduler();
+        CountingRunnable runnable = new CountingRunnable();
+        schedule(scheduler, runnable, 0, 3);
+
+        tick(scheduler, 1);
+        assertEquals(1, runnable.count);
+        tick(scheduler, 9);
+        assertEquals(4, runnable.count);
+    }
+
+    @Test
+    public void testCancel() {
+        SyncScheduler scheduler = new SyncScheduler();
+        CountingRunnable runnable = new CountingRunnable();
+        ScheduledTask task = schedule(scheduler, runnable, 0, 2);
+
+        tick(scheduler, 1);
+        task.cancel();
+        tick(scheduler, 10);
+        assertEquals(1, runnable.count);
+        assertEquals(0, scheduler.getScheduledTasks().size());
+    }
+
+    @Test
+    public void testCancelRemovesTask() {
+        SyncScheduler scheduler = new SyncScheduler();
+        CountingRunnable runnable = new CountingRunnable();
+        ScheduledTask task = schedule(scheduler, runnable, 100000, 0);
+        tick(scheduler, 1);
+        assertEquals(1, scheduler.getScheduledTasks().size());
+
+        // Removed right away, not once the delay has passed
+        task.cancel();
+        assertEquals(0, scheduler.getScheduledTasks().size());
+        assertFalse(scheduler.getTask(task.getUniqueId()).isPresent());
+        tick(scheduler, 1);
+        assertEquals(0, runnable.count);
+    }
+
+    @Test
+    public void testCancelBeforeMixedTimeBaseDelay() throws InterruptedException {
+        SyncScheduler scheduler = new SyncScheduler();
+        CountingRunnable runnable = new CountingRunnable();
+        // Delay in milliseconds, interval in ticks
+        ScheduledTask task = new ScheduledTask(ScheduledTask.TaskSynchronicity.SYNCHRONOUS, runnable, "test", 10, false, 2, true,
+                this.plugin);
+        scheduler.addTask(task);
+
+        task.cancel();
+        Thread.sleep(20);
+        tick(scheduler, 1);
+        assertEquals(0, runnable.count);
+        assertEquals(0, scheduler.getScheduledTasks().size());
+    }
+
+    @Test
+    public void testManyTasks() {
+        final int tasks = 100000;
+        final int maxDelay = 2000;
+        SyncScheduler scheduler = new SyncScheduler();
+        final int[] now = new int[1];
+        final int[] ranAt = new int[tasks];
+        final int[] runs = new int[tasks];
+        ScheduledTask[] scheduled = new ScheduledTask[tasks];
+        for (int i = 0; i < tasks; i++) {
+            final int id = i;
+            scheduled[i] = schedule(scheduler, new Runnable() {
+
+                @Override
+                public void run() {
+                    ranAt[id] = now[0];
+                    runs[id]++;
+                }
+
+            }, i % maxDelay, 0);
+        }
+        // Spread over the wheel and the tasks beyond it
+        for (int i = 0; i < tasks; i += 3) {
+            scheduled[i].cancel();
+        }
+        assertEquals(tasks - (tasks + 2) / 3, scheduler.getScheduledTasks().size());
+
+        for (now[0] = 1; now[0] <= maxDelay; now[0]++) {
+            scheduler.tick();
+        }
+        for (int i = 0; i < tasks; i++) {
+            if (i % 3 == 0) {
+                assertEquals("Canceled task " + i + " ran", 0, runs[i]);
+            } else {
+                assertEquals("Task " + i + " runs", 1, runs[i]);
+                assertEquals("Task " + i + " tick", Math.max(1, i % maxDelay), ranAt[i]);
+            }
+        }
+        assertEquals(0, scheduler.getScheduledTasks().size());
+    }
+
+    @Test
+    public void testTickBudget() {
+        SyncScheduler scheduler = new SyncScheduler();
+        scheduler.setTickBudget(1);
+        PluginContainer other = Mockito.mock(PluginContainer.class);
+        Mockito.when(this.plugin.getId()).thenReturn("first");
+        Mockito.when(other.getId()).thenReturn("second");
+        StringBuilder order = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            schedule(scheduler, new SlowRunnable(order, 'a'), 0, 0);
+        }
+        ScheduledTask task = new ScheduledTask(ScheduledTask.TaskSynchronicity.SYNCHRONOUS, new SlowRunnable(order, 'b'), "test", 0, true, 0,
+                true, other);
+        scheduler.addTask(task);
+
+        // Only one task fits in the budget, the plugins take turns
+        tick(scheduler, 1);
+        assertEquals("a", order.toString());
+        tick(scheduler, 1);
+        assertEquals("ab", order.toString());
+        tick(scheduler, 2);
+        assertEquals("abaa", order.toString());
+        assertEquals(0, scheduler.getScheduledTasks().size());
+    }
+
+    private static final class SlowRunnable implements Runnable {
+
+        private final StringBuilder order;
+        private final char id;
+
+        SlowRunnable(StringBuilder order, char id) {
+            this.order = order;
+            this.id = id;
+        }
+
+        @Override
+        public void run() {
+            this.order.append(this.id);
+            long end = System.nanoTime() + 2000000;
+            while (System.nanoTime() < end) {
+                // Busy wait past the budget
+            }
+        }
+
+    }
+
+    private static final class CountingRunnable implements Runnable {
+
+        int count;
+
+        @Override
+        public void run() {
+            this.count++;
+        }
+
+    }
+
+}
@@ -24,15 +24,21 @@
  */
 package org.spongepowered.common.util;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.spongepowered.common.data.util.ComparatorUtil.doubleComparator;
 import static org.spongepowered.common.util.ReflectionUtil.createInstance;
 import static org.spongepowered.common.util.ReflectionUtil.findConstructor;
 
 import org.junit.Test;
 import org.spongepowered.api.data.DataQuery;
 import org.spongepowered.api.data.key.Key;
+import org.spongepowered.api.data.value.immutable.ImmutableBoundedValue;
 import org.spongepowered.api.data.value.immutable.ImmutableValue;
 import org.spongepowered.api.data.value.mutable.Value;
 import org.spongepowered.common.data.ImmutableDataCachingUtil;
+import org.spongepowered.common.data.value.immutable.ImmutableSpongeBoundedValue;
 import org.spongepowered.common.data.value.immutable.ImmutableSpongeValue;
 
 import java.lang.reflect.Constructor;
@@ -94,7 +100,30 @@ public void testNoArgs() {
 
     @Test
     public void testImmutableValueCache() {
-        final Key<Value<Double>> key = new Key<Value<Double>>() {
+        final Key<Value<Double>> key = doubleKey();
+        final ImmutableValue<Double> myVal = ImmutableDataCachingUtil.getValue(ImmutableSpongeValue.class, key, 10D, 1D);
+        final ImmutableValue<Double> testVal = ImmutableDataCachingUtil.getValue(ImmutableSpongeValue.class, key, 10D, 1d);
+
+        assert myVal == testVal;
+
+    }
+
+    @Test
+    public void testImmutableBoundedValueCache() {
+        final Key<Value<Double>> key = doubleKey();
+        final ImmutableBoundedValue<Double> health = ImmutableDataCachingUtil.getValue(ImmutableSpongeBoundedValue.class, key, 20D, 20D,
+                doubleComparator(), 0D, 20D);
+        final ImmutableBoundedValue<Double> maxHealth = ImmutableDataCachingUtil.getValue(ImmutableSpongeBoundedValue.class, key, 20D, 20D,
+                doubleComparator(), 0D, (double) Float.MAX_VALUE);
+
+        assertNotSame(health, maxHealth);
+        assertEquals(20D, health.getMaxValue(), 0);
+        assertEquals(Float.MAX_VALUE, maxHealth.getMaxValue(), 0);
+        assertSame(health, ImmutableDataCachingUtil.getValue(ImmutableSpongeBoundedValue.class, key, 20D, 20D, doubleComparator(), 0D, 20D));
+    }
+
+    private static Key<Value<Double>> doubleKey() {
+        return new Key<Value<Double>>() {
             @SuppressWarnings({"unchecked", "rawtypes"})
             @Override
             public Class<Value<Double>> getValueClass() {
@@ -106,12 +135,6 @@ public DataQuery getQuery() {
                 return DataQuery.of("Herp");
             }
         };
-
-        final ImmutableValue<Double> myVal = ImmutableDataCachingUtil.getValue(ImmutableSpongeValue.class, key, 10D, 1D);
-        final ImmutableValue<Double> testVal = ImmutableDataCachingUtil.getValue(ImmutableSpongeValue.class, key, 10D, 1d);
-
-        assert myVal == testVal;
-
     }
 
     public static final class Complex {
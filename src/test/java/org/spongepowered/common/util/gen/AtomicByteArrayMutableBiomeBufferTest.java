@@ -0,0 +1,118 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.flowpowered.math.vector.Vector2i;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+public class AtomicByteArrayMutableBiomeBufferTest {
+
+    // Not a multiple of four, so the last packed element is only partly used
+    private static final Vector2i START = new Vector2i(7, -3);
+    private static final Vector2i SIZE = new Vector2i(5, 7);
+    private static final int AREA = SIZE.getX() * SIZE.getY();
+
+    @Test
+    public void testRoundTrip() {
+        final byte[] ids = new byte[AREA];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = (byte) (i * 11 + (i & 1) * 0x80);
+        }
+        ids[0] = (byte) 0xFF;
+        ids[1] = (byte) 0x80;
+        ids[2] = (byte) 0x7F;
+        ids[3] = (byte) 0xFE;
+        ids[ids.length - 1] = (byte) 0xFF;
+        final AtomicByteArrayMutableBiomeBuffer buffer = new AtomicByteArrayMutableBiomeBuffer(ids, START, SIZE);
+        assertArrayEquals(ids, buffer.toByteArray());
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(ids[i] & 0xFF, buffer.getId(i));
+        }
+    }
+
+    @Test
+    public void testSetKeepsNeighbours() {
+        final AtomicByteArrayMutableBiomeBuffer buffer = new AtomicByteArrayMutableBiomeBuffer(START, SIZE);
+        for (int i = 4; i < 8; i++) {
+            buffer.setId(i, 0x80 + i);
+        }
+        buffer.setId(5, 0xFF);
+        buffer.setId(6, 0x01);
+        assertEquals(0x84, buffer.getId(4));
+        assertEquals(0xFF, buffer.getId(5));
+        assertEquals(0x01, buffer.getId(6));
+        assertEquals(0x87, buffer.getId(7));
+        assertEquals(0, buffer.getId(3));
+        assertEquals(0, buffer.getId(8));
+        buffer.setId(AREA - 1, 0xC3);
+        assertEquals(0xC3, buffer.getId(AREA - 1));
+    }
+
+    @Test
+    public void testConcurrentInterleavedFill() throws InterruptedException {
+        final int threads = 4;
+        final int rounds = 200;
+        for (int round = 0; round < rounds; round++) {
+            final AtomicByteArrayMutableBiomeBuffer buffer = new AtomicByteArrayMutableBiomeBuffer(START, SIZE);
+            final CountDownLatch start = new CountDownLatch(1);
+            final Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                final int offset = t;
+                workers[t] = new Thread() {
+
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        // Each thread owns one of the four ids packed in every element
+                        for (int i = offset; i < AREA; i += threads) {
+                            buffer.setId(i, expected(i));
+                        }
+                    }
+                };
+                workers[t].start();
+            }
+            start.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            for (int i = 0; i < AREA; i++) {
+                assertEquals("Lost write at " + i, expected(i), buffer.getId(i));
+            }
+        }
+    }
+
+    static int expected(int index) {
+        return 0x80 | index * 7 & 0xFF;
+    }
+}
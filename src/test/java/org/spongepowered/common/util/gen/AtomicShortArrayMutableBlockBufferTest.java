@@ -0,0 +1,115 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.flowpowered.math.vector.Vector3i;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+public class AtomicShortArrayMutableBlockBufferTest {
+
+    // An odd volume, so the last packed element only holds one id
+    private static final Vector3i START = new Vector3i(-2, 10, 5);
+    private static final Vector3i SIZE = new Vector3i(3, 5, 7);
+    private static final int VOLUME = SIZE.getX() * SIZE.getY() * SIZE.getZ();
+
+    @Test
+    public void testRoundTrip() {
+        final short[] ids = new short[VOLUME];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = (short) (i * 0x0101 + (i & 1) * 0x8000);
+        }
+        ids[0] = (short) 0xFFFF;
+        ids[1] = (short) 0x8000;
+        ids[ids.length - 1] = (short) 0xFFFF;
+        final AtomicShortArrayMutableBlockBuffer buffer = new AtomicShortArrayMutableBlockBuffer(ids, START, SIZE);
+        assertArrayEquals(ids, buffer.toShortArray());
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(ids[i] & 0xFFFF, buffer.getId(i));
+        }
+    }
+
+    @Test
+    public void testSetKeepsNeighbour() {
+        final AtomicShortArrayMutableBlockBuffer buffer = new AtomicShortArrayMutableBlockBuffer(START, SIZE);
+        buffer.setId(4, 0xFFFF);
+        buffer.setId(5, 0x8001);
+        assertEquals(0xFFFF, buffer.getId(4));
+        assertEquals(0x8001, buffer.getId(5));
+        buffer.setId(4, 0x0002);
+        buffer.setId(5, 0x7FFF);
+        assertEquals(0x0002, buffer.getId(4));
+        assertEquals(0x7FFF, buffer.getId(5));
+        assertEquals(0, buffer.getId(3));
+        assertEquals(0, buffer.getId(6));
+        buffer.setId(VOLUME - 1, 0xABCD);
+        assertEquals(0xABCD, buffer.getId(VOLUME - 1));
+    }
+
+    @Test
+    public void testConcurrentInterleavedFill() throws InterruptedException {
+        final int threads = 4;
+        final int rounds = 200;
+        for (int round = 0; round < rounds; round++) {
+            final AtomicShortArrayMutableBlockBuffer buffer = new AtomicShortArrayMutableBlockBuffer(START, SIZE);
+            final CountDownLatch start = new CountDownLatch(1);
+            final Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                final int offset = t;
+                workers[t] = new Thread() {
+
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        // Neighbouring indices share an element but belong to different threads
+                        for (int i = offset; i < VOLUME; i += threads) {
+                            buffer.setId(i, expected(i));
+                        }
+                    }
+                };
+                workers[t].start();
+            }
+            start.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            for (int i = 0; i < VOLUME; i++) {
+                assertEquals("Lost write at " + i, expected(i), buffer.getId(i));
+            }
+        }
+    }
+
+    static int expected(int index) {
+        return 0x8000 | index * 31 & 0xFFFF;
+    }
+}